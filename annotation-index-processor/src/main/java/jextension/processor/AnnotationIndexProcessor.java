@@ -0,0 +1,484 @@
+package jextension.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.*;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * Writes a compile-time index of the extension-registering annotations that apply to each class
+ * and method being compiled, so jextension.ExtensionUtil can skip the reflective search.
+ *
+ * An annotation type is 'extension-registering' if it is @ExtendWith (or its @Extensions
+ * container), or has either as a meta-annotation at any depth, e.g. SimpleAnn, ConfigAnn and
+ * annotations composed from them.
+ *
+ * For each class, the index records every registering type the ExtensionUtil.findAnnotation
+ * search would find, and the class it would be found on:  The first class, in search order,
+ * where the type is directly present or meta-present.  The search order is the class, its
+ * interfaces, its superclasses and then (for inner classes) the enclosing classes, the same
+ * as ExtensionUtil.  For each method, the index records the registering types directly or
+ * meta-present on it.  Methods w/o any are left out.
+ *
+ * So that the index can be checked against the classes actually loaded w/o searching them
+ * again, each class also records the types its entries were worked out from:  The classes in
+ * its search order, and the annotation types on those and on its methods, w/ their
+ * meta-annotations (JDK types aside).  Those compiled along w/ it are listed by name, since their
+ * class files are written next to the index.  The others, from the classpath, have a CRC-32 of
+ * their class file as it was at compile time.  A class that depends on a type whose class file
+ * can't be read is left out of the index.
+ *
+ * Index format (see INDEX_RESOURCE).  Numbers are unsigned varints; strings are in a table
+ * and referenced by position:
+ * <pre>
+ *   int     MAGIC
+ *   varint  VERSION
+ *   varint  string count, then each string (DataOutput.writeUTF)
+ *   varint  class count, then for each class:
+ *     varint  class binary name
+ *     varint  class entry count, then for each: annotation type name, source class name
+ *     varint  method count, then for each:  method key (name + descriptor),
+ *             annotation type count, annotation type names
+ *     varint  count of types compiled w/ it, then their binary names
+ *     varint  count of classpath types, then for each:  binary name, int CRC-32 of the class file
+ * </pre>
+ * jextension.AnnotationIndex reads this format, so the two must be kept in step.
+ */
+@SupportedAnnotationTypes("*")
+public class AnnotationIndexProcessor extends AbstractProcessor {
+
+	public static final String INDEX_RESOURCE = "META-INF/jextension/annotation-index.bin";
+	public static final int MAGIC = 0x4A584149;	// 'JXAI'
+	public static final int VERSION = 2;
+
+	static final String EXTEND_WITH = "org.junit.jupiter.api.extension.ExtendWith";
+	static final String EXTENSIONS = "org.junit.jupiter.api.extension.Extensions";
+	static final String RETENTION = "java.lang.annotation.Retention";
+
+	/** Class records by binary name, across all rounds */
+	private final Map<String, ClassRecord> records = new TreeMap<>();
+
+	/** Meta-annotation closures by annotation type name, for the current round */
+	private final Map<String, Set<TypeElement>> metaClosures = new HashMap<>();
+
+	/** Class file CRC-32s of classpath types, by binary name (null if the class file can't be read) */
+	private final Map<String, Long> checksums = new HashMap<>();
+
+	private Elements elements;
+	private Types types;
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+
+		elements = processingEnv.getElementUtils();
+		types = processingEnv.getTypeUtils();
+		metaClosures.clear();	// Elements from earlier rounds should not be reused
+
+		if (roundEnv.processingOver()) {
+			writeIndex();
+		} else {
+			for (Element root : roundEnv.getRootElements()) {
+				if (root instanceof TypeElement) {
+					indexType((TypeElement) root);
+				}
+			}
+		}
+
+		return false;	// Never claim annotations, this only observes
+	}
+
+	private void indexType(TypeElement type) {
+		ClassRecord record = new ClassRecord();
+
+		// The first class in search order where each registering type is found is the source
+		for (TypeElement candidate = type; candidate != null; candidate = enclosingIfInner(candidate)) {
+			collectHierarchySources(candidate, record);
+		}
+
+		for (Element enclosed : type.getEnclosedElements()) {
+			if (enclosed.getKind() == ElementKind.METHOD) {
+				Set<String> present = new TreeSet<>();
+				collectRegisteringTypes(enclosed, present, record.dependencies);
+
+				if (! present.isEmpty()) {
+					record.methods.put(methodKey((ExecutableElement) enclosed), present);
+				}
+			} else if (enclosed instanceof TypeElement) {
+				indexType((TypeElement) enclosed);
+			}
+		}
+
+		String name = elements.getBinaryName(type).toString();
+		record.dependencies.remove(name);
+		records.put(name, record);
+	}
+
+	/**
+	 * Same order as ExtensionUtil.findAnnotation(AnnotatedElement, ...):  The node itself,
+	 * then its interfaces, then its superclass.
+	 */
+	private void collectHierarchySources(TypeElement node, ClassRecord record) {
+		Set<String> present = new TreeSet<>();
+		collectRegisteringTypes(node, present, record.dependencies);
+
+		String nodeName = elements.getBinaryName(node).toString();
+		for (String annType : present) {
+			record.sources.putIfAbsent(annType, nodeName);
+		}
+		addDependency(node, record.dependencies);
+
+		for (TypeMirror ifc : node.getInterfaces()) {
+			collectHierarchySources(asTypeElement(ifc), record);
+		}
+
+		TypeElement superclass = asTypeElement(node.getSuperclass());
+		if (superclass != null && ! superclass.getQualifiedName().contentEquals("java.lang.Object")) {
+			collectHierarchySources(superclass, record);
+		}
+	}
+
+	/**
+	 * Add the registering types that are directly present or meta-present on the element, and
+	 * every annotation type looked at to find them to the dependencies.
+	 */
+	private void collectRegisteringTypes(Element element, Set<String> present, Set<String> dependencies) {
+		for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+			TypeElement annType = (TypeElement) mirror.getAnnotationType().asElement();
+			String name = annType.getQualifiedName().toString();
+
+			addDependency(annType, dependencies);	// Even if not runtime visible, since its retention could change
+
+			if (! isRuntimeVisible(annType)) {
+				continue;
+			}
+
+			if (isRegistering(annType)) {
+				present.add(name);
+			}
+
+			if (! isInJavaLangAnnotationPackage(name)) {
+				for (TypeElement meta : metaClosure(annType)) {
+					addDependency(meta, dependencies);
+
+					if (isRegistering(meta)) {
+						present.add(meta.getQualifiedName().toString());
+					}
+				}
+			}
+		}
+	}
+
+	private boolean isRegistering(TypeElement annType) {
+		if (isExtendWith(annType)) {
+			return true;
+		}
+
+		for (TypeElement meta : metaClosure(annType)) {
+			if (isExtendWith(meta)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static boolean isExtendWith(TypeElement annType) {
+		String name = annType.getQualifiedName().toString();
+		return EXTEND_WITH.equals(name) || EXTENSIONS.equals(name);
+	}
+
+	/**
+	 * Every annotation type reachable through the meta-annotations of annType.
+	 * java.lang.annotation types are included, but not searched into.
+	 */
+	private Set<TypeElement> metaClosure(TypeElement annType) {
+		String name = annType.getQualifiedName().toString();
+		Set<TypeElement> closure = metaClosures.get(name);
+
+		if (closure == null) {
+			closure = new LinkedHashSet<>();
+			Set<String> visited = new HashSet<>();
+			Deque<TypeElement> toVisit = new ArrayDeque<>();
+
+			visited.add(name);
+			toVisit.push(annType);
+
+			while (! toVisit.isEmpty()) {
+				for (AnnotationMirror mirror : toVisit.pop().getAnnotationMirrors()) {
+					TypeElement meta = (TypeElement) mirror.getAnnotationType().asElement();
+					String metaName = meta.getQualifiedName().toString();
+
+					if (! isRuntimeVisible(meta)) {
+						continue;
+					}
+
+					closure.add(meta);
+
+					if (! isInJavaLangAnnotationPackage(metaName) && visited.add(metaName)) {
+						toVisit.push(meta);
+					}
+				}
+			}
+
+			metaClosures.put(name, closure);
+		}
+
+		return closure;
+	}
+
+	/**
+	 * Reflection only sees annotations w/ RUNTIME retention, so the index must ignore the rest.
+	 */
+	private boolean isRuntimeVisible(TypeElement annType) {
+		for (AnnotationMirror mirror : annType.getAnnotationMirrors()) {
+			if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(RETENTION)) {
+				for (AnnotationValue value : mirror.getElementValues().values()) {
+					return value.getValue().toString().equals("RUNTIME");
+				}
+			}
+		}
+
+		return false;	// The default retention is CLASS
+	}
+
+	/** Mirrors ExtensionUtil.isInnerClass:  Only non-static member classes search their enclosing class */
+	private TypeElement enclosingIfInner(TypeElement type) {
+		Element enclosing = type.getEnclosingElement();
+
+		if (type.getKind() == ElementKind.CLASS && type.getNestingKind() == NestingKind.MEMBER
+				&& ! type.getModifiers().contains(Modifier.STATIC) && enclosing instanceof TypeElement) {
+			return (TypeElement) enclosing;
+		}
+
+		return null;
+	}
+
+	private TypeElement asTypeElement(TypeMirror mirror) {
+		if (mirror.getKind() == TypeKind.DECLARED) {
+			return (TypeElement) ((DeclaredType) mirror).asElement();
+		}
+
+		return null;
+	}
+
+	/** Method name + JVM descriptor, matching jextension.AnnotationIndex.methodKey(Method) */
+	private String methodKey(ExecutableElement method) {
+		StringBuilder key = new StringBuilder(method.getSimpleName()).append('(');
+
+		for (VariableElement param : method.getParameters()) {
+			key.append(descriptor(param.asType()));
+		}
+
+		return key.append(')').append(descriptor(method.getReturnType())).toString();
+	}
+
+	private String descriptor(TypeMirror mirror) {
+		TypeMirror type = types.erasure(mirror);
+
+		switch (type.getKind()) {
+			case BOOLEAN: return "Z";
+			case BYTE: return "B";
+			case CHAR: return "C";
+			case SHORT: return "S";
+			case INT: return "I";
+			case LONG: return "J";
+			case FLOAT: return "F";
+			case DOUBLE: return "D";
+			case VOID: return "V";
+			case ARRAY: return "[" + descriptor(((ArrayType) type).getComponentType());
+			case DECLARED:
+				TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+				return "L" + elements.getBinaryName(element).toString().replace('.', '/') + ";";
+			default:
+				throw new IllegalArgumentException("No descriptor for type " + type);
+		}
+	}
+
+	private static boolean isInJavaLangAnnotationPackage(String annotationTypeName) {
+		return annotationTypeName.startsWith("java.lang.annotation");
+	}
+
+	/** JDK types are left out:  They can't change w/o the JDK changing, and aren't on the classpath */
+	private void addDependency(TypeElement type, Set<String> dependencies) {
+		String name = elements.getBinaryName(type).toString();
+
+		if (! name.startsWith("java.")) {
+			dependencies.add(name);
+		}
+	}
+
+	/**
+	 * The CRC-32 of a classpath type's class file, as found by the compiler.
+	 *
+	 * @param binaryName
+	 * @return null if it can't be read, e.g. if it's only on the module path
+	 */
+	private Long checksum(String binaryName) {
+		if (checksums.containsKey(binaryName)) {
+			return checksums.get(binaryName);
+		}
+
+		int dot = binaryName.lastIndexOf('.');
+		String pkg = (dot < 0) ? "" : binaryName.substring(0, dot);
+		Long checksum;
+
+		try (InputStream in = processingEnv.getFiler().getResource(StandardLocation.CLASS_PATH,
+				pkg, binaryName.substring(dot + 1) + ".class").openInputStream()) {
+			CRC32 crc = new CRC32();
+			crc.update(in.readAllBytes());
+			checksum = crc.getValue();
+		} catch (IOException | IllegalArgumentException e) {
+			checksum = null;
+		}
+
+		checksums.put(binaryName, checksum);
+		return checksum;
+	}
+
+	private void writeIndex() {
+		// Classes whose classpath dependencies can all be checked
+		Map<String, ClassRecord> indexed = new TreeMap<>();
+		records.forEach((name, record) -> {
+			if (resolveDependencies(record)) {
+				indexed.put(name, record);
+			}
+		});
+
+		if (indexed.isEmpty()) {
+			return;
+		}
+
+		// Build the string table
+		Map<String, Integer> strings = new LinkedHashMap<>();
+		indexed.forEach((name, record) -> {
+			strings.putIfAbsent(name, strings.size());
+			record.sources.forEach((annType, source) -> {
+				strings.putIfAbsent(annType, strings.size());
+				strings.putIfAbsent(source, strings.size());
+			});
+			record.methods.forEach((key, annTypes) -> {
+				strings.putIfAbsent(key, strings.size());
+				annTypes.forEach(a -> strings.putIfAbsent(a, strings.size()));
+			});
+			record.compiledWith.forEach(d -> strings.putIfAbsent(d, strings.size()));
+			record.checksums.keySet().forEach(d -> strings.putIfAbsent(d, strings.size()));
+		});
+
+		try {
+			FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE);
+
+			try (OutputStream os = file.openOutputStream();
+					DataOutputStream out = new DataOutputStream(os)) {
+
+				out.writeInt(MAGIC);
+				writeVarInt(out, VERSION);
+
+				writeVarInt(out, strings.size());
+				for (String s : strings.keySet()) {
+					out.writeUTF(s);
+				}
+
+				writeVarInt(out, indexed.size());
+				for (Map.Entry<String, ClassRecord> rec : indexed.entrySet()) {
+					writeVarInt(out, strings.get(rec.getKey()));
+
+					writeVarInt(out, rec.getValue().sources.size());
+					for (Map.Entry<String, String> source : rec.getValue().sources.entrySet()) {
+						writeVarInt(out, strings.get(source.getKey()));
+						writeVarInt(out, strings.get(source.getValue()));
+					}
+
+					writeVarInt(out, rec.getValue().methods.size());
+					for (Map.Entry<String, Set<String>> method : rec.getValue().methods.entrySet()) {
+						writeVarInt(out, strings.get(method.getKey()));
+						writeVarInt(out, method.getValue().size());
+						for (String annType : method.getValue()) {
+							writeVarInt(out, strings.get(annType));
+						}
+					}
+
+					writeVarInt(out, rec.getValue().compiledWith.size());
+					for (String dependency : rec.getValue().compiledWith) {
+						writeVarInt(out, strings.get(dependency));
+					}
+
+					writeVarInt(out, rec.getValue().checksums.size());
+					for (Map.Entry<String, Long> dependency : rec.getValue().checksums.entrySet()) {
+						writeVarInt(out, strings.get(dependency.getKey()));
+						out.writeInt(dependency.getValue().intValue());
+					}
+				}
+			}
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+					"Unable to write " + INDEX_RESOURCE + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Split the record's dependencies into those compiled along w/ it and those from the classpath.
+	 *
+	 * @return false if a classpath dependency's class file can't be read
+	 */
+	private boolean resolveDependencies(ClassRecord record) {
+		for (String dependency : record.dependencies) {
+			if (records.containsKey(dependency)) {
+				record.compiledWith.add(dependency);
+			} else {
+				Long checksum = checksum(dependency);
+
+				if (checksum == null) {
+					return false;
+				}
+
+				record.checksums.put(dependency, checksum);
+			}
+		}
+
+		return true;
+	}
+
+	static void writeVarInt(DataOutput out, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	private static class ClassRecord {
+		/** Registering annotation type name -> name of the class it is found on */
+		final Map<String, String> sources = new TreeMap<>();
+
+		/** Method key -> registering annotation type names on that method */
+		final Map<String, Set<String>> methods = new TreeMap<>();
+
+		/** Binary names of the types the entries were worked out from, other than the class itself */
+		final Set<String> dependencies = new TreeSet<>();
+
+		/** The dependencies compiled along w/ the class */
+		final Set<String> compiledWith = new TreeSet<>();
+
+		/** The other dependencies, w/ their class file CRC-32s */
+		final Map<String, Long> checksums = new TreeMap<>();
+	}
+}
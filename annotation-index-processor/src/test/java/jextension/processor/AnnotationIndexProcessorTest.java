@@ -0,0 +1,312 @@
+package jextension.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compiles small sources w/ the processor and reads back the index it writes.  The sources have
+ * their own ExtendWith (the processor only goes by its name), so nothing depends on the classpath
+ * of the test run.
+ */
+public class AnnotationIndexProcessorTest {
+
+	static final String EXTEND_WITH = "package org.junit.jupiter.api.extension;"
+			+ " import java.lang.annotation.*;"
+			+ " @Retention(RetentionPolicy.RUNTIME) public @interface ExtendWith { Class<?>[] value(); }";
+
+	static final String DIRECT = "package p; import java.lang.annotation.*; import org.junit.jupiter.api.extension.ExtendWith;"
+			+ " @Retention(RetentionPolicy.RUNTIME) @ExtendWith(Object.class) public @interface Direct { }";
+
+	@TempDir
+	Path dir;
+
+	@Test
+	public void varIntShouldUseSevenBitsPerByteLowestFirst() throws IOException {
+		assertArrayEquals(new byte[] { 0 }, varInt(0));
+		assertArrayEquals(new byte[] { 0x7F }, varInt(127));
+		assertArrayEquals(new byte[] { (byte) 0x80, 0x01 }, varInt(128));
+		assertArrayEquals(new byte[] { (byte) 0xAC, 0x02 }, varInt(300));
+		assertArrayEquals(new byte[] { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F }, varInt(-1));	// Unsigned
+
+		for (int value : new int[] { 16383, 16384, 1 << 21, Integer.MAX_VALUE }) {
+			assertEquals(value, readVarInt(new DataInputStream(new ByteArrayInputStream(varInt(value)))));
+		}
+	}
+
+	@Test		// More than 127 strings, so references to the later ones take two bytes
+	public void stringTableShouldHoldEachStringOnce() throws IOException {
+		StringBuilder source = new StringBuilder("package p; public class Many {");
+		for (int i = 0; i < 150; i++) {
+			source.append(" @Direct void m").append(i).append("() {}");
+		}
+		source.append(" }");
+
+		Index index = compileAndRead(Map.of("org.junit.jupiter.api.extension.ExtendWith", EXTEND_WITH,
+				"p.Direct", DIRECT, "p.Many", source.toString()));
+
+		assertTrue(index.strings.size() > 150);
+		assertEquals(index.strings.size(), Set.copyOf(index.strings).size(), "Duplicate strings");
+		assertEquals(150, index.classes.get("p.Many").methods.size());
+		assertEquals(Set.of("p.Direct", AnnotationIndexProcessor.EXTEND_WITH), index.classes.get("p.Many").methods.get("m149()V"));
+	}
+
+	@Test
+	public void metaAnnotationsShouldBeFollowedToAnyDepth() throws IOException {
+		Index index = compileAndRead(Map.of("org.junit.jupiter.api.extension.ExtendWith", EXTEND_WITH,
+				"p.Direct", DIRECT,
+				"p.Composed", runtimeAnnotation("Composed", "@Direct"),
+				"p.Deep", runtimeAnnotation("Deep", "@Composed"),
+				"p.Plain", runtimeAnnotation("Plain", ""),
+				"p.ClassRetained", "package p; @Composed public @interface ClassRetained { }",
+				"p.Annotated", "package p; @Deep @Plain public class Annotated { }",
+				"p.Hidden", "package p; @ClassRetained public class Hidden { }"));
+
+		assertEquals(Map.of("p.Deep", "p.Annotated", "p.Composed", "p.Annotated", "p.Direct", "p.Annotated",
+				AnnotationIndexProcessor.EXTEND_WITH, "p.Annotated"), index.classes.get("p.Annotated").sources);
+		assertEquals(Map.of(), index.classes.get("p.Hidden").sources, "Reflection can't see CLASS retention annotations");
+	}
+
+	@Test		// Each meta-annotation is only searched once
+	public void metaAnnotationCyclesShouldEnd() throws IOException {
+		Index index = compileAndRead(Map.of("org.junit.jupiter.api.extension.ExtendWith", EXTEND_WITH,
+				"p.Direct", DIRECT,
+				"p.Ping", runtimeAnnotation("Ping", "@Pong @Direct"),
+				"p.Pong", runtimeAnnotation("Pong", "@Ping"),
+				"p.Cyclic", "package p; @Pong public class Cyclic { }"));
+
+		assertEquals(Set.of("p.Pong", "p.Ping", "p.Direct", AnnotationIndexProcessor.EXTEND_WITH),
+				index.classes.get("p.Cyclic").sources.keySet());
+	}
+
+	@Test		// Superclasses, then enclosing classes (for inner classes only)
+	public void sourcesShouldBeTheFirstClassInSearchOrder() throws IOException {
+		Index index = compileAndRead(Map.of("org.junit.jupiter.api.extension.ExtendWith", EXTEND_WITH,
+				"p.Direct", DIRECT,
+				"p.Base", "package p; @Direct public class Base { }",
+				"p.Outer", "package p; public class Outer extends Base {"
+						+ " public class Inner { } public static class StaticNested { } }"));
+
+		assertEquals("p.Base", index.classes.get("p.Outer").sources.get("p.Direct"));
+		assertEquals("p.Base", index.classes.get("p.Outer$Inner").sources.get("p.Direct"));
+		assertEquals(Map.of(), index.classes.get("p.Outer$StaticNested").sources);
+	}
+
+	@Test		// Name + JVM descriptor, erased, w/ binary names for nested classes
+	public void methodKeysShouldMatchReflection() throws Exception {
+		Index index = compileAndRead(Map.of("org.junit.jupiter.api.extension.ExtendWith", EXTEND_WITH,
+				"p.Direct", DIRECT,
+				"p.Methods", "package p; public class Methods<T extends Number> {"
+						+ " public static class Inner { }"
+						+ " @Direct public void none() { }"
+						+ " @Direct public int prims(boolean z, byte b, char c, short s, long j, float f, double d) { return 0; }"
+						+ " @Direct public String[][] arrays(int[] a, Object[] o) { return null; }"
+						+ " @Direct public <E extends CharSequence> E generic(T t, java.util.List<String> l, E e) { return e; }"
+						+ " @Direct public void nested(Inner i) { }"
+						+ " public void unannotated() { } }"));
+
+		Set<String> keys = index.classes.get("p.Methods").methods.keySet();
+		assertEquals(Set.of("none()V", "prims(ZBCSJFD)I", "arrays([I[Ljava/lang/Object;)[[Ljava/lang/String;",
+				"generic(Ljava/lang/Number;Ljava/util/List;Ljava/lang/CharSequence;)Ljava/lang/CharSequence;",
+				"nested(Lp/Methods$Inner;)V"), keys);
+
+		// The same keys jextension.AnnotationIndex.methodKey makes from the compiled methods
+		try (URLClassLoader loader = new URLClassLoader(new URL[] { dir.resolve("out").toUri().toURL() })) {
+			Set<String> reflected = Arrays.stream(loader.loadClass("p.Methods").getDeclaredMethods())
+					.filter(m -> m.getDeclaredAnnotations().length > 0)
+					.map(AnnotationIndexProcessorTest::methodKey)
+					.collect(Collectors.toSet());
+
+			assertEquals(reflected, keys);
+		}
+	}
+
+	@Test		// Types compiled along w/ the class are listed, the rest have their class file's CRC-32
+	public void dependenciesShouldBeSplitByWhereTheyWereCompiled() throws IOException {
+		Path lib = compile("lib", List.of(), false, Map.of("org.junit.jupiter.api.extension.ExtendWith", EXTEND_WITH,
+				"q.LibBase", "package q; public class LibBase { }"));
+
+		Index index = compileAndRead(List.of(lib), Map.of("p.Direct", DIRECT,
+				"p.Sub", "package p; @Direct public class Sub extends q.LibBase { }"));
+
+		Record sub = index.classes.get("p.Sub");
+		assertEquals(Set.of("p.Direct"), sub.compiledWith);
+		assertEquals(Map.of("q.LibBase", crc(lib.resolve("q/LibBase.class")),
+				AnnotationIndexProcessor.EXTEND_WITH, crc(lib.resolve("org/junit/jupiter/api/extension/ExtendWith.class"))),
+				sub.checksums, "JDK types (Object, Retention) are left out");
+	}
+
+	private static String runtimeAnnotation(String name, String annotations) {
+		return "package p; import java.lang.annotation.*;"
+				+ " @Retention(RetentionPolicy.RUNTIME) " + annotations + " public @interface " + name + " { }";
+	}
+
+	private Index compileAndRead(Map<String, String> sources) throws IOException {
+		return compileAndRead(List.of(), sources);
+	}
+
+	private Index compileAndRead(List<Path> classpath, Map<String, String> sources) throws IOException {
+		Path out = compile("out", classpath, true, sources);
+
+		try (InputStream is = Files.newInputStream(out.resolve(AnnotationIndexProcessor.INDEX_RESOURCE));
+				DataInputStream in = new DataInputStream(is)) {
+			return Index.read(in);
+		}
+	}
+
+	private Path compile(String name, List<Path> classpath, boolean process, Map<String, String> sources) throws IOException {
+		Path out = Files.createDirectories(dir.resolve(name));
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+
+		List<String> path = new ArrayList<>(List.of(out.toString()));
+		classpath.forEach(p -> path.add(p.toString()));
+
+		List<String> options = new ArrayList<>(List.of("-d", out.toString(), "-classpath", String.join(File.pathSeparator, path)));
+		if (! process) {
+			options.add("-proc:none");
+		}
+
+		List<JavaFileObject> units = new ArrayList<>();
+		sources.forEach((className, code) -> units.add(new Source(className, code)));
+
+		JavaCompiler.CompilationTask task = compiler.getTask(null, null, null, options, null, units);
+		if (process) {
+			task.setProcessors(List.of(new AnnotationIndexProcessor()));
+		}
+
+		assertTrue(task.call(), "Compile failed");
+		return out;
+	}
+
+	private static byte[] varInt(int value) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		AnnotationIndexProcessor.writeVarInt(new DataOutputStream(bytes), value);
+		return bytes.toByteArray();
+	}
+
+	private static int readVarInt(DataInputStream in) throws IOException {
+		int value = 0;
+		for (int shift = 0; ; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+	}
+
+	private static long crc(Path classFile) throws IOException {
+		CRC32 crc = new CRC32();
+		crc.update(Files.readAllBytes(classFile));
+		return crc.getValue();
+	}
+
+	private static String methodKey(Method method) {
+		StringBuilder key = new StringBuilder(method.getName()).append('(');
+
+		for (Class<?> param : method.getParameterTypes()) {
+			key.append(param.descriptorString());
+		}
+
+		return key.append(')').append(method.getReturnType().descriptorString()).toString();
+	}
+
+	private static final class Source extends SimpleJavaFileObject {
+		private final String code;
+
+		Source(String className, String code) {
+			super(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+			this.code = code;
+		}
+
+		@Override
+		public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+			return code;
+		}
+	}
+
+	/** An index, read as jextension.AnnotationIndex reads it */
+	private static final class Index {
+		final List<String> strings = new ArrayList<>();
+		final Map<String, Record> classes = new HashMap<>();
+
+		static Index read(DataInputStream in) throws IOException {
+			assertEquals(AnnotationIndexProcessor.MAGIC, in.readInt());
+			assertEquals(AnnotationIndexProcessor.VERSION, readVarInt(in));
+
+			Index index = new Index();
+			int stringCount = readVarInt(in);
+			for (int i = 0; i < stringCount; i++) {
+				index.strings.add(in.readUTF());
+			}
+
+			int classCount = readVarInt(in);
+			for (int c = 0; c < classCount; c++) {
+				Record record = new Record();
+				index.classes.put(index.string(in), record);
+
+				int sourceCount = readVarInt(in);
+				for (int s = 0; s < sourceCount; s++) {
+					record.sources.put(index.string(in), index.string(in));
+				}
+
+				int methodCount = readVarInt(in);
+				for (int m = 0; m < methodCount; m++) {
+					String key = index.string(in);
+					Set<String> annTypes = new HashSet<>();
+					int annTypeCount = readVarInt(in);
+					for (int a = 0; a < annTypeCount; a++) {
+						annTypes.add(index.string(in));
+					}
+					record.methods.put(key, annTypes);
+				}
+
+				int compiledWithCount = readVarInt(in);
+				for (int d = 0; d < compiledWithCount; d++) {
+					record.compiledWith.add(index.string(in));
+				}
+
+				int checksumCount = readVarInt(in);
+				for (int d = 0; d < checksumCount; d++) {
+					record.checksums.put(index.string(in), Integer.toUnsignedLong(in.readInt()));
+				}
+			}
+
+			assertEquals(-1, in.read(), "Data after the last class");
+			return index;
+		}
+
+		private String string(DataInputStream in) throws IOException {
+			return strings.get(readVarInt(in));
+		}
+	}
+
+	private static final class Record {
+		final Map<String, String> sources = new HashMap<>();
+		final Map<String, Set<String>> methods = new HashMap<>();
+		final Set<String> compiledWith = new HashSet<>();
+		final Map<String, Long> checksums = new HashMap<>();
+	}
+}
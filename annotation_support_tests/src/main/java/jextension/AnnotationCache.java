@@ -0,0 +1,82 @@
+package jextension;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Member;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * Memoizes annotation lookups, keyed by (AnnotatedElement, annotation type).
+ *
+ * Results are hung off a ClassValue of the class that owns the element (the class itself,
+ * or the declaring class of a method/field/constructor), so the cache never keeps a class
+ * or its ClassLoader from being unloaded:  when the class goes away, so do its entries.
+ */
+final class AnnotationCache {
+
+	private static final ClassValue<Map<AnnotatedElement, Map<Class<? extends Annotation>, Optional<? extends Annotation>>>> CACHE =
+			new ClassValue<>() {
+				@Override
+				protected Map<AnnotatedElement, Map<Class<? extends Annotation>, Optional<? extends Annotation>>> computeValue(Class<?> type) {
+					return new ConcurrentHashMap<>();
+				}
+			};
+
+	private AnnotationCache() {
+		/* NO OP - no instances */
+	}
+
+	/**
+	 * Return the cached result for the element and annotation type, computing it with the
+	 * resolver on the first request.
+	 *
+	 * Elements that are not owned by a class (e.g. parameters) are not cached.
+	 *
+	 * @param element The element the lookup starts from
+	 * @param annotationType The annotation type to find
+	 * @param resolver Does the real (uncached) lookup.  Pass a method reference that does not
+	 * capture anything, so that a cache hit allocates nothing.
+	 * @return The cached result, which may be empty
+	 * @param <A>
+	 */
+	@SuppressWarnings("unchecked")
+	static <A extends Annotation, E extends AnnotatedElement> Optional<A> get(E element, Class<A> annotationType,
+			BiFunction<E, Class<A>, Optional<A>> resolver) {
+
+		Class<?> owner = ownerOf(element);
+
+		if (owner == null) {
+			return resolver.apply(element, annotationType);
+		}
+
+		Map<AnnotatedElement, Map<Class<? extends Annotation>, Optional<? extends Annotation>>> byElement = CACHE.get(owner);
+		Map<Class<? extends Annotation>, Optional<? extends Annotation>> byType = byElement.get(element);
+
+		if (byType == null) {
+			byType = byElement.computeIfAbsent(element, e -> new ConcurrentHashMap<>());
+		}
+
+		Optional<A> result = (Optional<A>) byType.get(annotationType);
+
+		if (result == null) {
+			result = resolver.apply(element, annotationType);
+			Optional<A> existing = (Optional<A>) byType.putIfAbsent(annotationType, result);
+			result = (existing != null) ? existing : result;
+		}
+
+		return result;
+	}
+
+	private static Class<?> ownerOf(AnnotatedElement element) {
+		if (element instanceof Class) {
+			return (Class<?>) element;
+		} else if (element instanceof Member) {
+			return ((Member) element).getDeclaringClass();
+		} else {
+			return null;
+		}
+	}
+}
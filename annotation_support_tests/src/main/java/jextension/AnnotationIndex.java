@@ -0,0 +1,393 @@
+package jextension;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.Extensions;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.security.CodeSource;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Reads the compile-time annotation index written by jextension.processor.AnnotationIndexProcessor
+ * (the annotation-index-processor module), which records the extension-registering annotations
+ * that apply to each class and method it compiled.
+ *
+ * For an indexed class and an extension-registering annotation type (@ExtendWith, or any
+ * annotation w/ it as a meta-annotation), the index says whether the ExtensionUtil.findAnnotation
+ * search would find the annotation and on which class, so the search is replaced by a check of
+ * that one class.  Classes that were not indexed, or other annotation types, fall back to the
+ * reflective search.
+ *
+ * The index can be out of date w/ the classes actually loaded, e.g. if a superclass in another
+ * jar has since gained a registering annotation.  So the first time a class is looked up, the
+ * types its entry was worked out from are checked, w/o searching them:  The class and the types
+ * compiled along w/ it must have been loaded from the same jar or directory as the index file,
+ * and the classpath types must have the class file CRC-32s they had at compile time (each type's
+ * location and CRC-32 are worked out once, in a ClassValue).  If any differ, the index is not
+ * used for the class or its methods.
+ *
+ * Index files are read once per ClassLoader (all copies of INDEX_RESOURCE on its classpath),
+ * and per-class results are held in a ClassValue.
+ */
+final class AnnotationIndex {
+
+	/** Must match AnnotationIndexProcessor.INDEX_RESOURCE */
+	static final String INDEX_RESOURCE = "META-INF/jextension/annotation-index.bin";
+	static final int MAGIC = 0x4A584149;	// 'JXAI'
+	static final int VERSION = 2;
+
+	/** Raw index data, by class name, for each ClassLoader that has been asked about */
+	private static final Map<ClassLoader, Map<String, ClassData>> BY_LOADER =
+			Collections.synchronizedMap(new WeakHashMap<>());
+
+	private static final IndexedClass NOT_INDEXED = new IndexedClass(Map.of(), Map.of());
+
+	/** Where each class was loaded from, as the URL string of its CodeSource ("" if unknown) */
+	private static final ClassValue<String> LOCATION = new ClassValue<>() {
+		@Override
+		protected String computeValue(Class<?> type) {
+			CodeSource source = type.getProtectionDomain().getCodeSource();
+			return (source != null && source.getLocation() != null) ? source.getLocation().toString() : "";
+		}
+	};
+
+	/** The CRC-32 of each class's class file, or -1 if it can't be read */
+	private static final ClassValue<Long> CHECKSUM = new ClassValue<>() {
+		@Override
+		protected Long computeValue(Class<?> type) {
+			String name = type.getName();
+
+			try (InputStream in = type.getResourceAsStream(name.substring(name.lastIndexOf('.') + 1) + ".class")) {
+				if (in == null) {
+					return -1L;
+				}
+
+				CRC32 crc = new CRC32();
+				crc.update(in.readAllBytes());
+				return crc.getValue();
+			} catch (IOException e) {
+				return -1L;
+			}
+		}
+	};
+
+	private static final ClassValue<IndexedClass> INDEXED = new ClassValue<>() {
+		@Override
+		protected IndexedClass computeValue(Class<?> clazz) {
+			ClassData data = dataOf(clazz);
+			return (data != null) ? resolve(clazz, data) : NOT_INDEXED;
+		}
+	};
+
+	/** Is the annotation type extension-registering? */
+	private static final ClassValue<Boolean> REGISTERING = new ClassValue<>() {
+		@Override
+		@SuppressWarnings("unchecked")
+		protected Boolean computeValue(Class<?> type) {
+			Class<? extends Annotation> annType = (Class<? extends Annotation>) type;
+
+			return annType == ExtendWith.class || annType == Extensions.class
+					|| MetaAnnotationIndex.find(annType, ExtendWith.class) != null
+					|| MetaAnnotationIndex.find(annType, Extensions.class) != null;
+		}
+	};
+
+	private AnnotationIndex() {
+		/* NO OP - no instances */
+	}
+
+	/**
+	 * Does the index have the answer for this class and annotation type?
+	 * If not, the reflective search is needed.
+	 *
+	 * @param clazz
+	 * @param annotationType
+	 * @return
+	 */
+	static boolean covers(Class<?> clazz, Class<? extends Annotation> annotationType) {
+		return INDEXED.get(clazz) != NOT_INDEXED && REGISTERING.get(annotationType);
+	}
+
+	/**
+	 * For a covered class and type, the class that ExtensionUtil.findAnnotation(Class, Class)
+	 * would find the annotation on (directly or meta-present).
+	 *
+	 * @param clazz
+	 * @param annotationType
+	 * @return The class, or null if the annotation would not be found.
+	 */
+	static Class<?> sourceOf(Class<?> clazz, Class<? extends Annotation> annotationType) {
+		return INDEXED.get(clazz).sources.get(annotationType.getName());
+	}
+
+	/**
+	 * Does the index have the answer for this method and annotation type?
+	 *
+	 * @param method
+	 * @param annotationType
+	 * @return
+	 */
+	static boolean covers(Method method, Class<? extends Annotation> annotationType) {
+		return covers(method.getDeclaringClass(), annotationType);
+	}
+
+	/**
+	 * For a covered method and type, is the annotation directly or meta-present on the method?
+	 *
+	 * @param method
+	 * @param annotationType
+	 * @return
+	 */
+	static boolean isPresent(Method method, Class<? extends Annotation> annotationType) {
+		return presentOn(method).contains(annotationType.getName());
+	}
+
+	/** The registering type names the index has for a method of an indexed class */
+	private static Set<String> presentOn(Method method) {
+		IndexedClass indexed = INDEXED.get(method.getDeclaringClass());
+		Set<String> present = indexed.byMethod.get(method);
+
+		if (present == null) {
+			present = indexed.methods.getOrDefault(methodKey(method), Set.of());
+			indexed.byMethod.putIfAbsent(method, present);
+		}
+
+		return present;
+	}
+
+	/**
+	 * Are the class and the types its index entry was worked out from the ones the index was
+	 * written against?
+	 *
+	 * @param clazz
+	 * @param data Its index entry
+	 * @return
+	 */
+	static boolean isCurrent(Class<?> clazz, ClassData data) {
+		if (! data.root.equals(LOCATION.get(clazz))) {
+			return false;	// E.g. an older copy of the class earlier on the classpath
+		}
+
+		for (String name : data.compiledWith) {
+			Class<?> type = loadOrNull(name, clazz.getClassLoader());
+
+			if (type == null || ! data.root.equals(LOCATION.get(type))) {
+				return false;
+			}
+		}
+
+		for (Map.Entry<String, Long> dependency : data.checksums.entrySet()) {
+			Class<?> type = loadOrNull(dependency.getKey(), clazz.getClassLoader());
+
+			if (type == null || ! dependency.getValue().equals(CHECKSUM.get(type))) {
+				return false;	// E.g. a superclass in another jar has changed since
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * The index entry for a class, as read.
+	 *
+	 * @param clazz
+	 * @return null if it isn't in the index
+	 */
+	static ClassData dataOf(Class<?> clazz) {
+		ClassLoader loader = clazz.getClassLoader();
+		return (loader != null) ? BY_LOADER.computeIfAbsent(loader, AnnotationIndex::load).get(clazz.getName()) : null;
+	}
+
+	private static Class<?> loadOrNull(String name, ClassLoader loader) {
+		try {
+			return Class.forName(name, false, loader);
+		} catch (ClassNotFoundException | LinkageError e) {
+			return null;
+		}
+	}
+
+	/** Method name + JVM descriptor, matching AnnotationIndexProcessor.methodKey */
+	static String methodKey(Method method) {
+		StringBuilder key = new StringBuilder(method.getName()).append('(');
+
+		for (Class<?> param : method.getParameterTypes()) {
+			key.append(param.descriptorString());
+		}
+
+		return key.append(')').append(method.getReturnType().descriptorString()).toString();
+	}
+
+	/**
+	 * Turn the source class names for a class into the Class objects, which are all in its
+	 * hierarchy or enclosing classes.
+	 */
+	private static IndexedClass resolve(Class<?> clazz, ClassData data) {
+		if (! isCurrent(clazz, data)) {
+			return NOT_INDEXED;	// The classes have changed since the index was written
+		}
+
+		Map<String, Class<?>> byName = new HashMap<>();
+		try (HierarchyWalker walker = HierarchyWalker.walk(clazz, HierarchyWalker.Scope.WITH_ENCLOSING, HierarchyWalker.UNLIMITED)) {
+			for (Class<?> node = walker.next(); node != null; node = walker.next()) {
+				if (byName.putIfAbsent(node.getName(), node) != null) {
+					walker.prune();	// Already have it and everything above it
+				}
+			}
+		}
+
+		Map<String, Class<?>> sources = new HashMap<>();
+		for (Map.Entry<String, String> source : data.sources.entrySet()) {
+			Class<?> sourceClass = byName.get(source.getValue());
+
+			if (sourceClass == null) {
+				return NOT_INDEXED;	// The index is out of date w/ the classes, so don't trust it
+			}
+
+			sources.put(source.getKey(), sourceClass);
+		}
+
+		return new IndexedClass(Map.copyOf(sources), data.methods);
+	}
+
+	private static Map<String, ClassData> load(ClassLoader loader) {
+		Map<String, ClassData> classes = new HashMap<>();
+
+		try {
+			Enumeration<URL> urls = loader.getResources(INDEX_RESOURCE);
+
+			while (urls.hasMoreElements()) {
+				URL url = urls.nextElement();
+
+				try (InputStream is = url.openStream();
+						DataInputStream in = new DataInputStream(is)) {
+					read(in, rootOf(url), classes);
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Unable to read " + INDEX_RESOURCE, e);
+		}
+
+		return classes;
+	}
+
+	/**
+	 * The jar or directory an index file is in, in the form CodeSource.getLocation() has for it.
+	 *
+	 * @param index The URL of INDEX_RESOURCE
+	 * @return
+	 */
+	static String rootOf(URL index) {
+		String url = index.toString();
+		String root = url.endsWith(INDEX_RESOURCE) ? url.substring(0, url.length() - INDEX_RESOURCE.length()) : url;
+
+		if (root.startsWith("jar:") && root.endsWith("!/")) {
+			root = root.substring("jar:".length(), root.length() - "!/".length());
+		}
+
+		return root;
+	}
+
+	/** See AnnotationIndexProcessor for the format */
+	private static void read(DataInputStream in, String root, Map<String, ClassData> classes) throws IOException {
+		if (in.readInt() != MAGIC || readVarInt(in) != VERSION) {
+			return;	// Not an index we understand, so everything falls back to reflection
+		}
+
+		String[] strings = new String[readVarInt(in)];
+		for (int i = 0; i < strings.length; i++) {
+			strings[i] = in.readUTF();
+		}
+
+		int classCount = readVarInt(in);
+		for (int c = 0; c < classCount; c++) {
+			String className = strings[readVarInt(in)];
+
+			Map<String, String> sources = new HashMap<>();
+			int sourceCount = readVarInt(in);
+			for (int s = 0; s < sourceCount; s++) {
+				sources.put(strings[readVarInt(in)], strings[readVarInt(in)]);
+			}
+
+			Map<String, Set<String>> methods = new HashMap<>();
+			int methodCount = readVarInt(in);
+			for (int m = 0; m < methodCount; m++) {
+				String key = strings[readVarInt(in)];
+				String[] annTypes = new String[readVarInt(in)];
+				for (int a = 0; a < annTypes.length; a++) {
+					annTypes[a] = strings[readVarInt(in)];
+				}
+				methods.put(key, Set.of(annTypes));
+			}
+
+			String[] compiledWith = new String[readVarInt(in)];
+			for (int d = 0; d < compiledWith.length; d++) {
+				compiledWith[d] = strings[readVarInt(in)];
+			}
+
+			Map<String, Long> checksums = new HashMap<>();
+			int checksumCount = readVarInt(in);
+			for (int d = 0; d < checksumCount; d++) {
+				checksums.put(strings[readVarInt(in)], Integer.toUnsignedLong(in.readInt()));
+			}
+
+			classes.putIfAbsent(className, new ClassData(root, sources, Map.copyOf(methods),
+					List.of(compiledWith), Map.copyOf(checksums)));
+		}
+	}
+
+	private static int readVarInt(DataInputStream in) throws IOException {
+		int value = 0;
+		for (int shift = 0; ; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+	}
+
+	/** Index data for a class, as read (all names) */
+	static final class ClassData {
+		/** The jar or directory of the index file (see rootOf) */
+		final String root;
+		final Map<String, String> sources;
+		final Map<String, Set<String>> methods;
+
+		/** Types compiled along w/ the class, so also in root */
+		final List<String> compiledWith;
+
+		/** Classpath types, w/ their class file CRC-32s */
+		final Map<String, Long> checksums;
+
+		ClassData(String root, Map<String, String> sources, Map<String, Set<String>> methods,
+				List<String> compiledWith, Map<String, Long> checksums) {
+			this.root = root;
+			this.sources = sources;
+			this.methods = methods;
+			this.compiledWith = compiledWith;
+			this.checksums = checksums;
+		}
+	}
+
+	/** Index data for a class, w/ the source classes resolved */
+	private static final class IndexedClass {
+		final Map<String, Class<?>> sources;
+		final Map<String, Set<String>> methods;
+
+		/** methods, by Method rather than key, filled in as methods are looked up */
+		final Map<Method, Set<String>> byMethod = new ConcurrentHashMap<>();
+
+		IndexedClass(Map<String, Class<?>> sources, Map<String, Set<String>> methods) {
+			this.sources = sources;
+			this.methods = methods;
+		}
+	}
+}
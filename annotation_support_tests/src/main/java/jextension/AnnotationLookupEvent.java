@@ -0,0 +1,85 @@
+package jextension;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * JFR event for an ExtensionUtil annotation lookup, e.g. to find the slow lookups of a CI test
+ * run w/ JDK Mission Control or 'jfr print --events jextension.AnnotationLookup'.
+ *
+ * When the event is not being recorded, start() returns null w/o allocating, and end() does
+ * nothing w/ a null event, so the cost of an unrecorded lookup event is a flag check.  Callers
+ * only call end() for a non-null event, so its arguments aren't worked out when not recording.
+ */
+@Name("jextension.AnnotationLookup")
+@Label("Annotation Lookup")
+@Category({"JUnit", "jextension"})
+@Description("An ExtensionUtil search for an annotation on a test method or class")
+@StackTrace(false)
+final class AnnotationLookupEvent extends Event {
+
+	/** Only used to ask if the event is enabled */
+	private static final AnnotationLookupEvent PROBE = new AnnotationLookupEvent();
+
+	@Label("Element")
+	@Description("The method or class searched from")
+	String element;
+
+	@Label("Annotation Type")
+	Class<?> annotationType;
+
+	@Label("Found")
+	boolean found;
+
+	@Label("Nodes Visited")
+	@Description("Classes visited in hierarchy walks.  Zero if answered from a cache or the annotation index")
+	long nodesVisited;
+
+	private transient long visitedAtStart;
+
+	/**
+	 * Begin timing a lookup.
+	 *
+	 * @return The event to pass to end(), or null if the event is not enabled
+	 */
+	static AnnotationLookupEvent start() {
+		if (! PROBE.isEnabled()) {
+			return null;
+		}
+
+		AnnotationLookupEvent event = new AnnotationLookupEvent();
+		event.visitedAtStart = HierarchyWalker.visitedOnThread();
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * End timing a lookup, and commit the event if it meets the recording's settings.
+	 *
+	 * @param event From start(), may be null
+	 * @param element The method or class searched from
+	 * @param annotationType
+	 * @param found
+	 */
+	static void end(AnnotationLookupEvent event, Object element, Class<? extends Annotation> annotationType, boolean found) {
+		if (event == null) {
+			return;
+		}
+
+		event.end();
+
+		if (event.shouldCommit()) {
+			event.element = String.valueOf(element);
+			event.annotationType = annotationType;
+			event.found = found;
+			event.nodesVisited = HierarchyWalker.visitedOnThread() - event.visitedAtStart;
+			event.commit();
+		}
+	}
+}
@@ -0,0 +1,118 @@
+package jextension;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * The source behind ExtensionUtil.streamAnnotationsForExtension:  Each element that has the
+ * annotation (directly or meta-present), in findAnnotationForExtension precedence order.
+ * The test method first, then the class, its interfaces and superclasses, then each enclosing
+ * class in turn.
+ *
+ * Nothing is searched until tryAdvance is called, and each call only walks as far as the next
+ * match, so taking just the first element costs about the same as a single lookup.
+ * A class reachable more than once (e.g. an interface implemented at two levels) contributes
+ * its annotation only the first time.
+ */
+final class AnnotationSpliterator<A extends Annotation> extends Spliterators.AbstractSpliterator<A> {
+
+	private final Class<A> annotationType;
+	private final HierarchyWalker.Scope scope;
+
+	private Method method;
+	private Class<?> clazz;
+	private HierarchyWalker walker;
+
+	/** Classes already checked, created on the first repeat visit check (i.e. only for a second match) */
+	private Set<Class<?>> seen;
+
+	/**
+	 * @param method The test method, or null if none
+	 * @param clazz The test class, or null if none
+	 * @param annotationType
+	 */
+	AnnotationSpliterator(Method method, Class<?> clazz, Class<A> annotationType) {
+		this(method, clazz, annotationType, HierarchyWalker.Scope.WITH_ENCLOSING);
+	}
+
+	/**
+	 * @param method The test method, or null if none
+	 * @param clazz The test class, or null if none
+	 * @param annotationType
+	 * @param scope How far to search from the class
+	 */
+	AnnotationSpliterator(Method method, Class<?> clazz, Class<A> annotationType, HierarchyWalker.Scope scope) {
+		super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+		this.method = method;
+		this.clazz = clazz;
+		this.annotationType = annotationType;
+		this.scope = scope;
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super A> action) {
+		A next = advance();
+
+		if (next != null) {
+			action.accept(next);
+			return true;
+		}
+
+		return false;
+	}
+
+	private A advance() {
+		if (method != null) {
+			Method m = method;
+			method = null;
+
+			A annotation = ExtensionUtil.findMethodAnnotationOrNull(m, annotationType);
+			if (annotation != null) {
+				return annotation;
+			}
+		}
+
+		if (clazz != null) {
+			Class<?> start = clazz;
+			clazz = null;
+
+			if (ExtensionUtil.mayHaveAnnotation(start, annotationType)) {
+				walker = HierarchyWalker.detached(start, scope, HierarchyWalker.UNLIMITED);
+			}
+		}
+
+		if (walker == null) {
+			return null;
+		}
+
+		for (Class<?> node = walker.next(); node != null; node = walker.next()) {
+
+			if (seen != null && ! seen.add(node)) {
+				walker.prune();		// Already checked it and everything above it
+				continue;
+			}
+
+			if (! AnnotationSummary.mayHaveAnnotationInHierarchy(node, annotationType)) {
+				walker.prune();
+				continue;
+			}
+
+			A annotation = ExtensionUtil.findDirectOrMetaPresentOrNull(node, annotationType);
+			if (annotation != null) {
+				if (seen == null) {
+					seen = new HashSet<>();		// From here on, skip repeats
+					seen.add(node);
+				}
+				return annotation;
+			}
+		}
+
+		walker = null;
+		return null;
+	}
+}
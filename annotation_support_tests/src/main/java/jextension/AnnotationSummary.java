@@ -0,0 +1,111 @@
+package jextension;
+
+import java.lang.annotation.Annotation;
+import java.util.*;
+
+/**
+ * Per-class summary of every annotation type that ExtensionUtil.findAnnotation could possibly
+ * find, starting from that class.
+ *
+ * The set is the transitive closure of the annotation types declared on the class, its
+ * interfaces and superclasses, the meta-annotations of those (from the MetaAnnotationIndex),
+ * and for inner classes, the enclosing classes.
+ * If a type is not in the set, the full search is guaranteed to come back empty, so a miss is a
+ * single hash lookup instead of a walk over the whole graph.
+ *
+ * Summaries are computed once per class and held in ClassValues, so they are freed along with
+ * the class.
+ */
+final class AnnotationSummary {
+
+	/** Types reachable from the class, its interfaces and superclasses (no enclosing classes). */
+	private static final ClassValue<Set<Class<? extends Annotation>>> HIERARCHY = new ClassValue<>() {
+		@Override
+		protected Set<Class<? extends Annotation>> computeValue(Class<?> clazz) {
+			Set<Class<? extends Annotation>> types = new HashSet<>();
+
+			for (Annotation ann : clazz.getDeclaredAnnotations()) {
+				types.addAll(META.get(ann.annotationType()));
+			}
+
+			for (Class<?> ifc : clazz.getInterfaces()) {
+				if (ifc != Annotation.class) {
+					types.addAll(HIERARCHY.get(ifc));
+				}
+			}
+
+			Class<?> superclass = clazz.getSuperclass();
+			if (superclass != null && superclass != Object.class) {
+				types.addAll(HIERARCHY.get(superclass));
+			}
+
+			return Set.copyOf(types);
+		}
+	};
+
+	/** HIERARCHY, plus the summaries of enclosing classes for inner (non-static member) classes. */
+	private static final ClassValue<Set<Class<? extends Annotation>>> WITH_ENCLOSING = new ClassValue<>() {
+		@Override
+		protected Set<Class<? extends Annotation>> computeValue(Class<?> clazz) {
+			Set<Class<? extends Annotation>> own = HIERARCHY.get(clazz);
+
+			if (! ExtensionUtil.isInnerClass(clazz)) {
+				return own;
+			}
+
+			Set<Class<? extends Annotation>> enclosing = WITH_ENCLOSING.get(clazz.getEnclosingClass());
+
+			if (own.containsAll(enclosing)) {
+				return own;
+			} else if (enclosing.containsAll(own)) {
+				return enclosing;
+			}
+
+			Set<Class<? extends Annotation>> types = new HashSet<>(own);
+			types.addAll(enclosing);
+			return Set.copyOf(types);
+		}
+	};
+
+	/**
+	 * For an annotation type, the type itself plus every type reachable through its
+	 * meta-annotations, as recorded in the MetaAnnotationIndex.
+	 */
+	private static final ClassValue<Set<Class<? extends Annotation>>> META = new ClassValue<>() {
+		@Override
+		@SuppressWarnings("unchecked")
+		protected Set<Class<? extends Annotation>> computeValue(Class<?> annotationType) {
+			Class<? extends Annotation> type = (Class<? extends Annotation>) annotationType;
+			Set<Class<? extends Annotation>> types = new HashSet<>(MetaAnnotationIndex.metaAnnotationTypes(type));
+			types.add(type);
+			return Set.copyOf(types);
+		}
+	};
+
+	private AnnotationSummary() {
+		/* NO OP - no instances */
+	}
+
+	/**
+	 * Could a search from the class (including its enclosing classes) find the annotation type?
+	 *
+	 * @param clazz
+	 * @param annotationType
+	 * @return false if the annotation type can definitely not be found.
+	 */
+	static boolean mayHaveAnnotation(Class<?> clazz, Class<? extends Annotation> annotationType) {
+		return WITH_ENCLOSING.get(clazz).contains(annotationType);
+	}
+
+	/**
+	 * Could a search from the class (its interfaces and superclasses, but not enclosing
+	 * classes) find the annotation type?
+	 *
+	 * @param clazz
+	 * @param annotationType
+	 * @return false if the annotation type can definitely not be found.
+	 */
+	static boolean mayHaveAnnotationInHierarchy(Class<?> clazz, Class<? extends Annotation> annotationType) {
+		return HIERARCHY.get(clazz).contains(annotationType);
+	}
+}
@@ -0,0 +1,120 @@
+package jextension;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A record of properties set as System properties, w/ the values they replaced, so they can be
+ * put back exactly as they were:  Keys that were not set before are removed, and keys that were
+ * set get their old values back.
+ *
+ * In overlay mode (the OVERLAY_PARAMETER configuration parameter set to true), the properties
+ * are instead pushed as an OverlayProperties layer, seen only by the test's thread, so tests
+ * can run in parallel.  Restoring removes the layer.  Overlay mode is the default when parallel
+ * execution is enabled.  @ConfigAnn and @SimpleAnn take a READ_WRITE lock on the System properties
+ * either way, so w/ overlay mode off, their tests still take turns.
+ *
+ * Extensions keep this in the ExtensionContext.Store between beforeEach and afterEach, so the
+ * restore needs no file I/O and no annotation lookup.
+ */
+public final class AppliedProperties {
+
+	/** JUnit configuration parameter to apply properties per-thread rather than globally */
+	public static final String OVERLAY_PARAMETER = "jextension.config.overlay";
+
+	/** JUnit configuration parameter that enables parallel execution */
+	static final String PARALLEL_PARAMETER = "junit.jupiter.execution.parallel.enabled";
+
+	/** The prior value of each applied key, or null if it was not set.  Null in overlay mode. */
+	private final Map<String, String> prior;
+
+	/** The overlay layer, or null if applied globally */
+	private final OverlayProperties.Layer layer;
+
+	private final Set<String> keys;
+
+	private AppliedProperties(Map<String, String> prior, OverlayProperties.Layer layer, Set<String> keys) {
+		this.prior = prior;
+		this.layer = layer;
+		this.keys = Collections.unmodifiableSet(keys);
+	}
+
+	/**
+	 * Apply the properties in the mode configured for the test run:  As an overlay if
+	 * OVERLAY_PARAMETER is true, otherwise globally.
+	 *
+	 * @param context
+	 * @param props
+	 * @return The record to restore from
+	 */
+	public static AppliedProperties apply(ExtensionContext context, Map<String, String> props) {
+		return isOverlay(context) ? overlay(props) : apply(props);
+	}
+
+	/**
+	 * Whether properties are applied as an overlay in this test run:  OVERLAY_PARAMETER, which
+	 * defaults to whether parallel execution is enabled.
+	 *
+	 * @param context
+	 * @return
+	 */
+	public static boolean isOverlay(ExtensionContext context) {
+		boolean parallel = context.getConfigurationParameter(PARALLEL_PARAMETER, Boolean::parseBoolean).orElse(false);
+		return context.getConfigurationParameter(OVERLAY_PARAMETER, Boolean::parseBoolean).orElse(parallel);
+	}
+
+	/**
+	 * Push the properties as an overlay layer for this thread, whatever the test run's mode.
+	 *
+	 * @param props
+	 * @return The record to restore from, which must be on the same thread
+	 */
+	public static AppliedProperties overlay(Map<String, String> props) {
+		return new AppliedProperties(null, OverlayProperties.push(props), props.keySet());
+	}
+
+	/**
+	 * Set each property as a System property, recording the values replaced.
+	 *
+	 * @param props
+	 * @return The record to restore from
+	 */
+	public static AppliedProperties apply(Map<String, String> props) {
+		Map<String, String> prior = new HashMap<>();
+
+		props.forEach((key, value) -> prior.put(key, System.setProperty(key, value)));
+
+		return new AppliedProperties(prior, null, prior.keySet());
+	}
+
+	/**
+	 * Put the System properties back the way they were before apply.
+	 */
+	public void restore() {
+		if (layer != null) {
+			layer.close();
+			return;
+		}
+
+		prior.forEach((key, value) -> {
+			if (value != null) {
+				System.setProperty(key, value);
+			} else {
+				System.clearProperty(key);
+			}
+		});
+	}
+
+	/**
+	 * The keys that were applied.
+	 *
+	 * @return
+	 */
+	public Set<String> keys() {
+		return keys;
+	}
+}
@@ -0,0 +1,263 @@
+package jextension;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.io.PrintStream;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wall time spent in extension callbacks, as a LatencyHistogram for each extension class,
+ * RegistrationSource and callback, w/ a summary printed at the end of the test run.
+ *
+ * JUnit has no way to intercept another extension's callbacks, so extensions time themselves:
+ * <pre>
+ * long start = CallbackTimings.start();
+ * try {
+ *     ...
+ * } finally {
+ *     CallbackTimings.record(context, this, ExtensionCallback.BEFORE_EACH, start);
+ * }
+ * </pre>
+ *
+ * Timing is off unless the ENABLED_PARAMETER configuration parameter is true.  Whether it is on
+ * is remembered for each test run's root context, so the parameter is read once per run.  When
+ * the same run records again, which is nearly always, record() just compares the root context
+ * w/ the last one seen, and otherwise looks it up.  The timings for a run live in the root
+ * context's Store, so the summary is printed when the root context is closed, after the last test.
+ */
+public final class CallbackTimings implements ExtensionContext.Store.CloseableResource {
+
+	/** JUnit configuration parameter to time extension callbacks and print a summary */
+	public static final String ENABLED_PARAMETER = "jextension.timing.enabled";
+
+	private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(CallbackTimings.class);
+
+	/** Each test run seen, by root context.  Weak, so a run's contexts aren't kept after it. */
+	private static final Map<ExtensionContext, Run> RUNS = Collections.synchronizedMap(new WeakHashMap<>());
+
+	/** The last test run seen, so repeated records from the same run skip the RUNS lookup */
+	private static volatile Run lastRun;
+
+	private final boolean enabled;
+	private final PrintStream out;
+
+	private final Map<Key, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+	/**
+	 * The registration source of each extension instance seen, so it is only worked out once.
+	 * The instances are weakly referenced, so ones the run is done w/ can be collected before it ends.
+	 */
+	private final Map<Identity, RegistrationSource> sources = new ConcurrentHashMap<>();
+
+	/** Identities whose extension has been collected, to remove from sources */
+	private final ReferenceQueue<Object> collected = new ReferenceQueue<>();
+
+	CallbackTimings(boolean enabled, PrintStream out) {
+		this.enabled = enabled;
+		this.out = out;
+	}
+
+	/**
+	 * The start time to pass to record().
+	 *
+	 * @return
+	 */
+	public static long start() {
+		return System.nanoTime();
+	}
+
+	/**
+	 * Record the time since start for the extension's callback, if timing is enabled.
+	 *
+	 * @param context The context passed to the callback
+	 * @param extension The extension instance (this)
+	 * @param callback The callback timed
+	 * @param start From start()
+	 */
+	public static void record(ExtensionContext context, Object extension, ExtensionCallback callback, long start) {
+		long elapsed = System.nanoTime() - start;
+
+		if (isEnabled(context)) {
+			of(context).add(context, extension, callback, elapsed);
+		}
+	}
+
+	/**
+	 * Is timing enabled for the context's test run?
+	 *
+	 * @param context
+	 * @return
+	 */
+	static boolean isEnabled(ExtensionContext context) {
+		ExtensionContext root = context.getRoot();
+		Run run = lastRun;
+
+		if (run == null || run.root.get() != root) {
+			// Contexts don't override equals, so this is an identity lookup
+			run = RUNS.computeIfAbsent(root,
+					r -> new Run(r, r.getConfigurationParameter(ENABLED_PARAMETER, Boolean::parseBoolean).orElse(false)));
+			lastRun = run;
+		}
+
+		return run.enabled;
+	}
+
+	/**
+	 * The timings for the context's test run.
+	 *
+	 * @param context
+	 * @return
+	 */
+	static CallbackTimings of(ExtensionContext context) {
+		ExtensionContext.Store store = context.getRoot().getStore(NAMESPACE);
+		CallbackTimings timings = store.get(CallbackTimings.class, CallbackTimings.class);
+
+		if (timings != null) {
+			return timings;
+		}
+
+		return store.getOrComputeIfAbsent(CallbackTimings.class,
+				c -> new CallbackTimings(context.getConfigurationParameter(ENABLED_PARAMETER, Boolean::parseBoolean).orElse(false), System.out),
+				CallbackTimings.class);
+	}
+
+	void add(ExtensionContext context, Object extension, ExtensionCallback callback, long elapsedNanos) {
+		for (Reference<?> ref = collected.poll(); ref != null; ref = collected.poll()) {
+			sources.remove(ref);
+		}
+
+		Identity identity = new Identity(extension, collected);
+		RegistrationSource source = sources.get(identity);
+
+		if (source == null) {
+			source = sources.computeIfAbsent(identity, i -> RegistrationSource.of(context, extension));
+		}
+
+		histograms.computeIfAbsent(new Key(extension.getClass(), source, callback), k -> new LatencyHistogram())
+				.record(elapsedNanos);
+	}
+
+	/**
+	 * The histogram for an extension class, source and callback.
+	 *
+	 * @return The histogram, or null if nothing was recorded for it
+	 */
+	LatencyHistogram histogram(Class<?> extensionClass, RegistrationSource source, ExtensionCallback callback) {
+		return histograms.get(new Key(extensionClass, source, callback));
+	}
+
+	/** Print the summary when the test run is over */
+	@Override
+	public void close() {
+		if (enabled && ! histograms.isEmpty()) {
+			print(out);
+		}
+	}
+
+	/**
+	 * One line per extension class, source and callback, then a total (merged) line for each
+	 * extension class.  Times are in microseconds.
+	 *
+	 * @param out
+	 */
+	void print(PrintStream out) {
+		Map<Key, LatencyHistogram> sorted = new TreeMap<>(Comparator.comparing((Key k) -> k.extensionClass.getName())
+				.thenComparing(k -> k.source).thenComparing(k -> k.callback));
+		sorted.putAll(histograms);
+
+		Map<Class<?>, LatencyHistogram> totals = new TreeMap<>(Comparator.comparing(Class::getName));
+		List<String> lines = new ArrayList<>();
+
+		sorted.forEach((key, histogram) -> {
+			totals.computeIfAbsent(key.extensionClass, c -> new LatencyHistogram()).merge(histogram);
+			lines.add(line(key.extensionClass.getName(), key.source.name(), key.callback.name(), histogram));
+		});
+		totals.forEach((extensionClass, histogram) -> lines.add(line(extensionClass.getName(), "(all)", "(all)", histogram)));
+
+		out.println("Extension callback timings (us)");
+		out.println(String.format("%-40s %-12s %-12s %8s %10s %10s %10s", "extension", "source", "callback", "count", "p50", "p99", "max"));
+		lines.forEach(out::println);
+	}
+
+	private static String line(String extension, String source, String callback, LatencyHistogram histogram) {
+		return String.format("%-40s %-12s %-12s %8d %10.1f %10.1f %10.1f", extension, source, callback, histogram.count(),
+				histogram.percentile(0.5) / 1000.0, histogram.percentile(0.99) / 1000.0, histogram.max() / 1000.0);
+	}
+
+	/** (extension class, source, callback) */
+	private static final class Key {
+		final Class<?> extensionClass;
+		final RegistrationSource source;
+		final ExtensionCallback callback;
+
+		Key(Class<?> extensionClass, RegistrationSource source, ExtensionCallback callback) {
+			this.extensionClass = extensionClass;
+			this.source = source;
+			this.callback = callback;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (! (o instanceof Key)) {
+				return false;
+			}
+
+			Key other = (Key) o;
+			return extensionClass == other.extensionClass && source == other.source && callback == other.callback;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * (31 * extensionClass.hashCode() + source.hashCode()) + callback.hashCode();
+		}
+	}
+
+	/**
+	 * A weakly referenced extension instance, compared by identity.  Once the instance is collected,
+	 * an Identity is only equal to itself, so it can still be removed.
+	 */
+	private static final class Identity extends WeakReference<Object> {
+		private final int hash;
+
+		Identity(Object extension, ReferenceQueue<Object> queue) {
+			super(extension, queue);
+			this.hash = System.identityHashCode(extension);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+
+			Object extension = get();
+			return (o instanceof Identity) && extension != null && extension == ((Identity) o).get();
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+
+	/** A test run's root context, weakly referenced so it isn't kept after the run, and whether timing is enabled */
+	private static final class Run {
+		final WeakReference<ExtensionContext> root;
+		final boolean enabled;
+
+		Run(ExtensionContext root, boolean enabled) {
+			this.root = new WeakReference<>(root);
+			this.enabled = enabled;
+		}
+	}
+}
@@ -0,0 +1,98 @@
+package jextension;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The reflective facts about a class that the ExtensionUtil search needs, computed once per class.
+ *
+ * Class.getInterfaces(), getDeclaredAnnotations() and friends return a fresh copy on every call,
+ * and getEnclosingClass() / isMemberClass() allocate internally, so a search that calls them
+ * directly allocates at every node.  Reading them from here instead keeps the search
+ * allocation-free once a class has been seen.
+ *
+ * The arrays are shared, so they must never be modified.
+ */
+final class ClassInfo {
+
+	private static final ClassValue<ClassInfo> INFO = new ClassValue<>() {
+		@Override
+		protected ClassInfo computeValue(Class<?> clazz) {
+			return new ClassInfo(clazz);
+		}
+	};
+
+	/** Interfaces, not including Annotation (which annotation types implement) */
+	final Class<?>[] interfaces;
+
+	/** The superclass, or null if it is Object or there is none */
+	final Class<?> superclass;
+
+	/** The enclosing class if this is an inner (non-static member) class, otherwise null */
+	final Class<?> enclosingIfInner;
+
+	/** Types of the declared annotations that meta-annotations can be found on */
+	final Class<? extends Annotation>[] metaCandidates;
+
+	/** The ExtensionContext.Store namespace ExtensionUtil caches this class's lookups in */
+	final ExtensionContext.Namespace lookupNamespace;
+
+	/** metaCandidates for each of this class's methods that has been looked at */
+	private final ConcurrentHashMap<Method, Class<? extends Annotation>[]> methodMetaCandidates = new ConcurrentHashMap<>();
+
+	private ClassInfo(Class<?> clazz) {
+		interfaces = Arrays.stream(clazz.getInterfaces()).filter(i -> i != Annotation.class).toArray(Class<?>[]::new);
+
+		Class<?> sup = clazz.getSuperclass();
+		superclass = (sup != Object.class) ? sup : null;
+
+		enclosingIfInner = ExtensionUtil.isInnerClass(clazz) ? clazz.getEnclosingClass() : null;
+		metaCandidates = computeMetaCandidates(clazz);
+		lookupNamespace = ExtensionContext.Namespace.create(ExtensionUtil.class, clazz);
+	}
+
+	static ClassInfo of(Class<?> clazz) {
+		return INFO.get(clazz);
+	}
+
+	/**
+	 * The types of the declared annotations on the element that meta-annotations can be found on,
+	 * i.e. not the java.lang.annotation types.
+	 *
+	 * Cached for classes and methods.  Other elements are computed on each call.
+	 *
+	 * @param element
+	 * @return
+	 */
+	static Class<? extends Annotation>[] metaCandidates(AnnotatedElement element) {
+		if (element instanceof Class) {
+			return of((Class<?>) element).metaCandidates;
+		} else if (element instanceof Method) {
+			Method method = (Method) element;
+			ClassInfo info = of(method.getDeclaringClass());
+
+			Class<? extends Annotation>[] candidates = info.methodMetaCandidates.get(method);
+			if (candidates == null) {
+				candidates = computeMetaCandidates(method);
+				info.methodMetaCandidates.putIfAbsent(method, candidates);
+			}
+
+			return candidates;
+		} else {
+			return computeMetaCandidates(element);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Class<? extends Annotation>[] computeMetaCandidates(AnnotatedElement element) {
+		return Arrays.stream(element.getDeclaredAnnotations())
+				.map(Annotation::annotationType)
+				.filter(t -> ! t.getName().startsWith("java.lang.annotation"))
+				.toArray(Class[]::new);
+	}
+}
@@ -1,6 +1,9 @@
 package jextension;
 
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.ResourceAccessMode;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.junit.jupiter.api.parallel.Resources;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.Target;
@@ -8,9 +11,31 @@ import java.lang.annotation.Target;
 import static java.lang.annotation.ElementType.*;
 import static java.lang.annotation.RetentionPolicy.RUNTIME;
 
+/**
+ * Apply a properties file as System properties for each test (see ConfigExt).
+ *
+ * This declares a READ_WRITE lock on Resources.SYSTEM_PROPERTIES, so when tests run in parallel,
+ * annotated tests (a class annotation locks the whole class) take turns.  That keeps every mode of
+ * ConfigExt correct in a parallel run, including the class-scoped and diff modes, which apply
+ * configurations to the real System properties across tests when overlay mode is off (see
+ * AppliedProperties.isOverlay).  In overlay mode those two modes are turned off, and each test's
+ * configuration is a per-thread overlay.
+ *
+ * For tests that should run alongside each other, use @OverlayConfigAnn instead, which is always
+ * an overlay and so only takes a READ lock.  A ConfigExt registered any other way (e.g.
+ * @ExtendWith(ConfigExt.class) or @RegisterExtension) needs an explicit @ResourceLock.
+ */
 @Target({ TYPE, METHOD, ANNOTATION_TYPE })
 @Retention(RUNTIME)
 @ExtendWith(ConfigExt.class)
+@ResourceLock(value = Resources.SYSTEM_PROPERTIES, mode = ResourceAccessMode.READ_WRITE)
 public @interface ConfigAnn {
+
+	/**
+	 * The properties file:  A classpath resource (see Class.getResource), or a file system path
+	 * prefixed w/ "file:" (see PropertiesCache.FILE_PREFIX), which is re-read whenever it changes.
+	 *
+	 * @return
+	 */
 	String filepath();
 }
@@ -3,9 +3,52 @@ package jextension;
 import org.junit.jupiter.api.extension.*;
 
 import java.io.IOException;
-import java.util.Properties;
+import java.util.Optional;
 
-public class ConfigExt implements BeforeEachCallback, AfterEachCallback {
+/**
+ * Applies the properties file of the closest @ConfigAnn (see ExtensionUtil.findAnnotationForExtension)
+ * as System properties for each test.
+ *
+ * With the CLASS_SCOPED_PARAMETER configuration parameter set to true (and not in overlay mode,
+ * see AppliedProperties), the class-level configuration is applied once in beforeAll and
+ * restored in afterAll.  Tests that resolve to that same configuration then have nothing to do,
+ * and only tests that override it (w/ a method annotation, or a nested class w/ its own) apply
+ * their configuration on top and restore it afterwards.
+ *
+ * With the DIFF_PARAMETER configuration parameter set to true (and not in overlay mode), a
+ * class-registered ConfigExt leaves each test's configuration applied, and before the next test
+ * applies only the keys that differ (see TrackedProperties).  Everything is restored in afterAll
+ * of the class.  This replaces class-scoped mode, which it makes redundant.
+ *
+ * The beforeEach and afterEach callbacks are timed (see CallbackTimings), and recorded as JFR
+ * events when a recording has them enabled (see ExtensionCallbackEvent).
+ *
+ * With the PREFETCH_PARAMETER configuration parameter set to true, every file the test class
+ * tree refers to is loaded in the background when the class starts (see ConfigPrefetcher).
+ *
+ * With the LAYERED_PARAMETER configuration parameter set to true, every @ConfigAnn that applies
+ * is used, not just the closest:  Their files are merged, w/ closer ones winning (see ConfigLayers).
+ */
+public class ConfigExt implements BeforeAllCallback, AfterAllCallback, BeforeEachCallback, AfterEachCallback {
+
+	/** JUnit configuration parameter to apply the class-level configuration once per class */
+	public static final String CLASS_SCOPED_PARAMETER = "jextension.config.classScoped";
+
+	/** JUnit configuration parameter to merge all the applicable files rather than use the closest */
+	public static final String LAYERED_PARAMETER = "jextension.config.layered";
+
+	/** JUnit configuration parameter to load the class tree's files in the background */
+	public static final String PREFETCH_PARAMETER = "jextension.config.prefetch";
+
+	/** JUnit configuration parameter to apply only the differences between consecutive tests' configurations */
+	public static final String DIFF_PARAMETER = "jextension.config.diff";
+
+	private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(ConfigExt.class);
+	private static final ExtensionContext.Namespace CLASS_NAMESPACE = NAMESPACE.append("class");
+	private static final ExtensionContext.Namespace DIFF_NAMESPACE = NAMESPACE.append("diff");
+
+	/** The resource path of a layered configuration in ExtensionCallbackEvents, which comes from several files */
+	static final String LAYERED_PATH = "(layered)";
 
 	public String findPath(final ExtensionContext context) {
 		ConfigAnn ann = ExtensionUtil.findAnnotationForExtension(
@@ -13,20 +56,158 @@ public class ConfigExt implements BeforeEachCallback, AfterEachCallback {
 		return ann.filepath();
 	}
 
+	@Override
+	public void beforeAll(final ExtensionContext context) throws IOException {
+		if (context.getConfigurationParameter(PREFETCH_PARAMETER, Boolean::parseBoolean).orElse(false)) {
+			ConfigPrefetcher.prefetch(context, getClass());
+		}
+
+		if (isDiff(context)) {
+			// An enclosing class's tracker (Store lookups fall back to parents) covers its nested classes too
+			if (context.getStore(DIFF_NAMESPACE).get(this, TrackedProperties.class) == null) {
+				context.getStore(DIFF_NAMESPACE).put(this, new TrackedProperties());
+			}
+			return;
+		}
+
+		if (! isClassScoped(context)) {
+			return;
+		}
+
+		PropertySnapshot config;
+
+		if (isLayered(context)) {
+			config = ConfigLayers.resolve(context, getClass());
+		} else {
+			Optional<ConfigAnn> ann = ExtensionUtil.findAnnotationForExtension(context, ConfigAnn.class);
+			config = ann.isPresent() ? PropertiesCache.shared().get(getClass(), ann.get().filepath()) : null;
+		}
+
+		// Nothing to do if there's no class-level configuration, or it is the one an enclosing class already applied
+		if (config != null && ! config.isEmpty() && config != appliedForClass(context)) {
+			AppliedProperties applied = AppliedProperties.apply(config);
+			context.getStore(CLASS_NAMESPACE).put(this, new ClassScope(config, applied));
+		}
+	}
+
+	@Override
+	public void afterAll(final ExtensionContext context) {
+		TrackedProperties tracked = context.getStore(DIFF_NAMESPACE).remove(this, TrackedProperties.class);
+
+		if (tracked != null) {
+			tracked.restore();
+		}
+
+		ClassScope scope = context.getStore(CLASS_NAMESPACE).remove(this, ClassScope.class);
+
+		if (scope != null) {
+			scope.applied.restore();
+		}
+	}
+
 	@Override
 	public void beforeEach(final ExtensionContext context) throws IOException {
-		Properties props = new Properties();
-		props.load(getClass().getResourceAsStream(findPath(context)));
-		System.setProperties(props);
-		System.out.println("ConfigExt Before");
+		long start = CallbackTimings.start();
+		ExtensionCallbackEvent event = ExtensionCallbackEvent.start();
+		String path = null;
+		try {
+			path = applyForTest(context);
+		} finally {
+			CallbackTimings.record(context, this, ExtensionCallback.BEFORE_EACH, start);
+			ExtensionCallbackEvent.end(event, context, this, ExtensionCallback.BEFORE_EACH, path);
+		}
 	}
 
 	@Override
-	public void afterEach(final ExtensionContext context) throws IOException {
-		// reset the sys props ...
-		Properties props = new Properties();
-		props.load(getClass().getResourceAsStream(findPath(context)));
+	public void afterEach(final ExtensionContext context) {
+		long start = CallbackTimings.start();
+		ExtensionCallbackEvent event = ExtensionCallbackEvent.start();
+		try {
+			restoreForTest(context);
+		} finally {
+			CallbackTimings.record(context, this, ExtensionCallback.AFTER_EACH, start);
+			ExtensionCallbackEvent.end(event, context, this, ExtensionCallback.AFTER_EACH,
+					(event != null) ? resourcePath(context) : null);
+		}
+	}
+
+	/**
+	 * Apply the test's configuration, unless it is already applied.
+	 *
+	 * @param context
+	 * @return The resource path of the configuration
+	 * @throws IOException
+	 */
+	private String applyForTest(final ExtensionContext context) throws IOException {
+		String path = resourcePath(context);
+		PropertySnapshot config = isLayered(context)
+				? ConfigLayers.resolve(context, getClass())
+				: PropertiesCache.shared().get(getClass(), path);
+
+		// Null if ConfigExt is only registered on the method, so there was no beforeAll to create it
+		TrackedProperties tracked = context.getStore(DIFF_NAMESPACE).get(this, TrackedProperties.class);
+
+		if (tracked != null) {
+			tracked.switchTo(config);
+			return path;		// Left applied for the next test to diff against
+		}
+
+		if (config == appliedForClass(context)) {
+			return path;		// Already applied for the whole class
+		}
+
+		AppliedProperties applied = AppliedProperties.apply(context, config);
+		context.getStore(NAMESPACE).put(this, applied);
+		System.out.println("ConfigExt Before");
+		return path;
+	}
+
+	/** The test's properties file, or LAYERED_PATH in layered mode */
+	private String resourcePath(final ExtensionContext context) {
+		return isLayered(context) ? LAYERED_PATH : findPath(context);
+	}
+
+	private void restoreForTest(final ExtensionContext context) {
+		// reset the sys props to what they were before this test
+		AppliedProperties applied = context.getStore(NAMESPACE).remove(this, AppliedProperties.class);
+
+		if (applied != null) {
+			applied.restore();
+		}
+	}
+
+	private static boolean isClassScoped(ExtensionContext context) {
+		return context.getConfigurationParameter(CLASS_SCOPED_PARAMETER, Boolean::parseBoolean).orElse(false)
+				&& ! isOverlay(context) && ! isDiff(context);
+	}
+
+	private static boolean isDiff(ExtensionContext context) {
+		return context.getConfigurationParameter(DIFF_PARAMETER, Boolean::parseBoolean).orElse(false)
+				&& ! isOverlay(context);
+	}
+
+	private static boolean isOverlay(ExtensionContext context) {
+		return AppliedProperties.isOverlay(context);
+	}
+
+	private static boolean isLayered(ExtensionContext context) {
+		return context.getConfigurationParameter(LAYERED_PARAMETER, Boolean::parseBoolean).orElse(false);
+	}
+
+	/** The configuration applied by the closest class context (Store lookups fall back to parents), or null */
+	private PropertySnapshot appliedForClass(ExtensionContext context) {
+		ClassScope scope = context.getStore(CLASS_NAMESPACE).get(this, ClassScope.class);
+		return (scope != null) ? scope.config : null;
+	}
+
+	/** What beforeAll applied for a class */
+	private static final class ClassScope {
+		final PropertySnapshot config;
+		final AppliedProperties applied;
 
-		props.keySet().stream().forEach(k -> System.getProperties().remove(k));
+		ClassScope(PropertySnapshot config, AppliedProperties applied) {
+			this.config = config;
+			this.applied = applied;
+		}
 	}
 }
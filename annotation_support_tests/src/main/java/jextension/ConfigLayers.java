@@ -0,0 +1,148 @@
+package jextension;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Layered configuration:  Every @ConfigAnn file that applies to a test is merged, rather than
+ * only the closest one being used.  Closer layers win for keys they both set.  In precedence
+ * order:  The test method, then the test class, its interfaces and superclasses, then each
+ * enclosing class (and its hierarchy) in turn.
+ *
+ * Merging is incremental.  The merged view for a class is cached in the Store of its class
+ * context, and built from its enclosing class's merged view (read from the parent context)
+ * plus only the files declared in the class's own hierarchy.  A class or method w/o any
+ * files of its own reuses its parent's merged view as is, so a deep @Nested tree does not
+ * re-merge every file for every test.
+ */
+final class ConfigLayers {
+
+	private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(ConfigLayers.class);
+
+	private static final PropertySnapshot EMPTY = PropertySnapshot.of(Map.of());
+
+	private ConfigLayers() {
+		/* NO OP - no instances */
+	}
+
+	/**
+	 * The merged configuration for the context:  A test method's context includes any method-level
+	 * file on top of its class's merged view.
+	 *
+	 * @param context
+	 * @param base The class the file paths are resolved relative to (see PropertiesCache.get)
+	 * @return The merged properties, which may be empty
+	 * @throws IOException If a file can't be read
+	 */
+	static PropertySnapshot resolve(ExtensionContext context, Class<?> base) throws IOException {
+		PropertySnapshot classLayers = context.getTestClass().isPresent()
+				? classLayers(ExtensionUtil.classContextOf(context), base)
+				: EMPTY;
+
+		if (context.getTestMethod().isEmpty()) {
+			return classLayers;
+		}
+
+		ConfigAnn ann = ExtensionUtil.findMethodAnnotationOrNull(context.getRequiredTestMethod(), ConfigAnn.class);
+		return (ann != null) ? merge(classLayers, List.of(ann), base) : classLayers;
+	}
+
+	/**
+	 * The merged view for a class context, cached in its Store.
+	 *
+	 * As in ExtensionUtil, the namespace includes the class so that a nested class context never
+	 * sees the cached value of its enclosing class context.
+	 */
+	private static PropertySnapshot classLayers(ExtensionContext classContext, Class<?> base) throws IOException {
+		Class<?> clazz = classContext.getRequiredTestClass();
+
+		try {
+			return classContext.getStore(NAMESPACE.append(clazz)).getOrComputeIfAbsent(base,
+					b -> mergeClass(classContext, clazz, base), PropertySnapshot.class);
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * The enclosing class's merged view (from the parent context when it is the enclosing class's
+	 * context) plus the files in the class's own hierarchy.
+	 */
+	private static PropertySnapshot mergeClass(ExtensionContext classContext, Class<?> clazz, Class<?> base) {
+		try {
+			PropertySnapshot enclosing = EMPTY;
+
+			if (ExtensionUtil.isInnerClass(clazz)) {
+				Class<?> enclosingClass = clazz.getEnclosingClass();
+				ExtensionContext parent = classContext.getParent().orElse(null);
+
+				if (parent != null && parent.getTestMethod().isEmpty() && parent.getTestClass().orElse(null) == enclosingClass) {
+					enclosing = classLayers(parent, base);
+				} else {
+					enclosing = mergeClass(enclosingClass, base);
+				}
+			}
+
+			return merge(enclosing, hierarchyLayers(clazz), base);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/** mergeClass w/o a context to cache in, for an enclosing class that has no context of its own */
+	private static PropertySnapshot mergeClass(Class<?> clazz, Class<?> base) throws IOException {
+		PropertySnapshot enclosing = ExtensionUtil.isInnerClass(clazz) ? mergeClass(clazz.getEnclosingClass(), base) : EMPTY;
+		return merge(enclosing, hierarchyLayers(clazz), base);
+	}
+
+	/** The annotations in the class's own hierarchy, nearest first */
+	private static List<ConfigAnn> hierarchyLayers(Class<?> clazz) {
+		if (! ExtensionUtil.mayHaveAnnotation(clazz, ConfigAnn.class)) {
+			return List.of();
+		}
+
+		return ExtensionUtil.streamHierarchyAnnotations(clazz, ConfigAnn.class).collect(Collectors.toList());
+	}
+
+	/**
+	 * The layers on top of the inherited view.  Only the new layers are read:  The inherited view
+	 * is already merged.
+	 *
+	 * @param inherited The merged view of everything further away
+	 * @param layers Nearest first
+	 * @param base
+	 * @return inherited itself if there are no layers
+	 * @throws IOException
+	 */
+	private static PropertySnapshot merge(PropertySnapshot inherited, List<ConfigAnn> layers, Class<?> base) throws IOException {
+		if (layers.isEmpty()) {
+			return inherited;
+		}
+
+		PropertySnapshot[] files = new PropertySnapshot[layers.size()];
+		int size = inherited.size();
+
+		for (int i = 0; i < files.length; i++) {
+			files[i] = PropertiesCache.shared().get(base, layers.get(i).filepath());
+			size += files[i].size();
+		}
+
+		if (inherited.isEmpty() && files.length == 1) {
+			return files[0];	// Nothing to merge, and the cached file keeps its identity
+		}
+
+		PropertySnapshot.Builder merged = new PropertySnapshot.Builder(size);
+		inherited.forEach(merged::put);
+
+		for (int i = files.length - 1; i >= 0; i--) {		// Farthest first, so the nearest is put last and wins
+			files[i].forEach(merged::put);
+		}
+
+		return merged.build();
+	}
+}
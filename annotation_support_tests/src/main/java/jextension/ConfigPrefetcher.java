@@ -0,0 +1,136 @@
+package jextension;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.junit.platform.commons.support.HierarchyTraversalMode;
+import org.junit.platform.commons.support.ReflectionSupport;
+
+import java.lang.reflect.Method;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Starts loading every @ConfigAnn file that a test class tree refers to when the class starts,
+ * so that the file I/O happens in the background, overlapping earlier tests, and beforeEach
+ * finds the file already in the PropertiesCache (or waits for the load in progress).
+ *
+ * The files are found w/ the same rules as ExtensionUtil:  The class, its interfaces and
+ * superclasses, its enclosing classes, every method (including inherited ones), and
+ * recursively, each @Nested class.  The whole tree is done from the outermost class context,
+ * so nested class contexts have nothing to do.
+ */
+final class ConfigPrefetcher {
+
+	private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(ConfigPrefetcher.class);
+
+	/** Loads are mostly waiting on I/O, so allow a few at once even w/ few CPUs */
+	private static final int THREADS = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+	private static final AtomicInteger SUBMITTED = new AtomicInteger();
+
+	/** Counts the loads handed to the pool, which is only created by the first one */
+	private static final Executor EXECUTOR = task -> {
+		SUBMITTED.incrementAndGet();
+		Holder.EXECUTOR.execute(task);
+	};
+
+	private ConfigPrefetcher() {
+		/* NO OP - no instances */
+	}
+
+	/**
+	 * Prefetch every file in the class tree, unless an enclosing class context already has.
+	 *
+	 * @param classContext
+	 * @param base The class the file paths are resolved relative to (see PropertiesCache.get)
+	 */
+	static void prefetch(ExtensionContext classContext, Class<?> base) {
+		// Store lookups fall back to parent contexts, so this finds an enclosing class's prefetch
+		classContext.getStore(NAMESPACE).getOrComputeIfAbsent(base, b -> {
+			Set<String> paths = referencedPaths(classContext.getRequiredTestClass());
+
+			for (String path : paths) {
+				PropertiesCache.shared().prefetch(base, path, EXECUTOR);
+			}
+
+			return paths;
+		});
+	}
+
+	/** Number of loads started in the background so far (files already cached or being loaded aren't) */
+	static int submittedCount() {
+		return SUBMITTED.get();
+	}
+
+	/**
+	 * Every @ConfigAnn filepath in the class tree.
+	 *
+	 * @param clazz
+	 * @return In the order found
+	 */
+	static Set<String> referencedPaths(Class<?> clazz) {
+		Set<String> paths = new LinkedHashSet<>();
+
+		for (Class<?> enclosing = clazz; ExtensionUtil.isInnerClass(enclosing); ) {
+			enclosing = enclosing.getEnclosingClass();
+			addHierarchyPaths(enclosing, paths);
+		}
+
+		addTreePaths(clazz, paths);
+		return paths;
+	}
+
+	private static void addTreePaths(Class<?> clazz, Set<String> paths) {
+		addHierarchyPaths(clazz, paths);
+
+		for (Method method : ReflectionSupport.findMethods(clazz, m -> true, HierarchyTraversalMode.TOP_DOWN)) {
+			ConfigAnn ann = ExtensionUtil.findMethodAnnotationOrNull(method, ConfigAnn.class);
+
+			if (ann != null) {
+				paths.add(ann.filepath());
+			}
+		}
+
+		for (Class<?> nested : ReflectionSupport.findNestedClasses(clazz,
+				c -> ExtensionUtil.isInnerClass(c) && AnnotationSupport.isAnnotated(c, Nested.class))) {
+			addTreePaths(nested, paths);
+		}
+	}
+
+	private static void addHierarchyPaths(Class<?> clazz, Set<String> paths) {
+		if (ExtensionUtil.mayHaveAnnotation(clazz, ConfigAnn.class)) {
+			ExtensionUtil.streamHierarchyAnnotations(clazz, ConfigAnn.class).map(ConfigAnn::filepath).forEach(paths::add);
+		}
+	}
+
+	/**
+	 * Created on first use.  Daemon threads, so a prefetch never keeps the JVM running, and they
+	 * exit once idle, so the pool holds no threads between test classes.
+	 */
+	private static final class Holder {
+		static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(THREADS, THREADS, 5, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), new DaemonThreadFactory());
+
+		static {
+			EXECUTOR.allowCoreThreadTimeOut(true);
+		}
+	}
+
+	private static final class DaemonThreadFactory implements ThreadFactory {
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, "jextension-config-prefetch-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -0,0 +1,9 @@
+package jextension;
+
+/**
+ * The extension callbacks, as guarded by OncePerTest, timed by CallbackTimings and recorded by
+ * ExtensionCallbackEvent.
+ */
+public enum ExtensionCallback {
+	BEFORE_ALL, AFTER_ALL, BEFORE_EACH, AFTER_EACH, BEFORE_TEST_EXECUTION, AFTER_TEST_EXECUTION
+}
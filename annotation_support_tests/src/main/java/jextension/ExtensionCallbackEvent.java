@@ -0,0 +1,105 @@
+package jextension;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * JFR event for an extension callback (ConfigExt and SimpleExt beforeEach / afterEach), e.g. to
+ * find where the time goes in a slow CI test run w/ JDK Mission Control or
+ * 'jfr print --events jextension.ExtensionCallback'.
+ *
+ * Usage, alongside CallbackTimings:
+ * <pre>
+ * ExtensionCallbackEvent event = ExtensionCallbackEvent.start();
+ * try {
+ *     ...
+ * } finally {
+ *     ExtensionCallbackEvent.end(event, context, this, ExtensionCallback.BEFORE_EACH, path);
+ * }
+ * </pre>
+ *
+ * When the event is not being recorded, start() returns null w/o allocating, and end() does
+ * nothing w/ a null event, so the cost of an unrecorded callback event is a flag check.
+ */
+@Name("jextension.ExtensionCallback")
+@Label("Extension Callback")
+@Category({"JUnit", "jextension"})
+@Description("A beforeEach / afterEach callback of a jextension extension")
+@StackTrace(false)
+final class ExtensionCallbackEvent extends Event {
+
+	/** Only used to ask if the event is enabled */
+	private static final ExtensionCallbackEvent PROBE = new ExtensionCallbackEvent();
+
+	@Label("Extension")
+	Class<?> extension;
+
+	@Label("Callback")
+	String callback;
+
+	@Label("Test")
+	@Description("The unique id of the test's ExtensionContext")
+	String test;
+
+	@Label("Resource Path")
+	@Description("The properties file the test is configured w/")
+	String resourcePath;
+
+	@Label("Bytes Loaded")
+	@Description("Properties bytes parsed during the callback.  Zero if they were cached or loaded in the background")
+	@DataAmount
+	long bytesLoaded;
+
+	private transient long bytesAtStart;
+
+	/**
+	 * Begin timing a callback.
+	 *
+	 * @return The event to pass to end(), or null if the event is not enabled
+	 */
+	static ExtensionCallbackEvent start() {
+		if (! PROBE.isEnabled()) {
+			return null;
+		}
+
+		ExtensionCallbackEvent event = new ExtensionCallbackEvent();
+		event.bytesAtStart = PropertiesLoader.bytesReadOnThread();
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * End timing a callback, and commit the event if it meets the recording's settings.
+	 *
+	 * @param event From start(), may be null
+	 * @param context The context passed to the callback
+	 * @param extension The extension instance (this)
+	 * @param callback
+	 * @param resourcePath The properties file, or null if unknown
+	 */
+	static void end(ExtensionCallbackEvent event, ExtensionContext context, Object extension,
+			ExtensionCallback callback, String resourcePath) {
+
+		if (event == null) {
+			return;
+		}
+
+		event.end();
+
+		if (event.shouldCommit()) {
+			event.extension = extension.getClass();
+			event.callback = callback.name();
+			event.test = context.getUniqueId();
+			event.resourcePath = resourcePath;
+			event.bytesLoaded = PropertiesLoader.bytesReadOnThread() - event.bytesAtStart;
+			event.commit();
+		}
+	}
+
+}
@@ -1,13 +1,15 @@
 package jextension;
 
 import org.junit.jupiter.api.extension.ExtensionContext;
-import org.junit.platform.commons.support.AnnotationSupport;
 import org.junit.platform.commons.util.Preconditions;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class ExtensionUtil {
 
@@ -16,7 +18,38 @@ public class ExtensionUtil {
 	}
 
 
+	/**
+	 * Find the annotation for an extension, looking first on the test method (if any), then on
+	 * the test class, its superclasses and interfaces, and finally its enclosing classes.
+	 *
+	 * Method results are cached per (method, annotation type).  Class results are cached in the
+	 * ExtensionContext.Store of each class-level context, and a nested class w/o its own
+	 * annotation reuses the answer already cached by its enclosing class's context.  So only the
+	 * first lookup in each class pays for a search, and it only searches that class's hierarchy.
+	 * A warm lookup still allocates what the ExtensionContext API does (the Optional from
+	 * getTestMethod(), and the Store view and key), unlike findAnnotation(Class, Class).
+	 *
+	 * Each lookup is recorded as a JFR event when a recording has it enabled (see AnnotationLookupEvent).
+	 *
+	 * @param context
+	 * @param annotationType
+	 * @return
+	 * @param <A>
+	 */
 	public static <A extends Annotation> Optional<A> findAnnotationForExtension(ExtensionContext context, Class<A> annotationType) {
+		AnnotationLookupEvent event = AnnotationLookupEvent.start();
+		Optional<A> annInstance = searchForExtension(context, annotationType);
+
+		// Checked here, not just in end(), so the element (getTestMethod() allocates) isn't worked out when not recording
+		if (event != null) {
+			AnnotationLookupEvent.end(event, context.getTestMethod().isPresent() ? context.getRequiredTestMethod()
+					: context.getTestClass().orElse(null), annotationType, annInstance.isPresent());
+		}
+
+		return annInstance;
+	}
+
+	private static <A extends Annotation> Optional<A> searchForExtension(ExtensionContext context, Class<A> annotationType) {
 
 		Optional<A> annInstance = Optional.empty();
 
@@ -26,156 +59,442 @@ public class ExtensionUtil {
 
 		// Look for the annotation on the method, if present.
 		if (context.getTestMethod().isPresent()) {
-			annInstance = AnnotationSupport.findAnnotation(Optional.of(context.getRequiredTestMethod()), annotationType);
+			annInstance = AnnotationCache.get(context.getRequiredTestMethod(), annotationType,
+					ExtensionUtil::findMethodAnnotation);
 		}
 
 		// Look for the annotation on the class, if present.
 		if (! annInstance.isPresent() && context.getTestClass().isPresent()) {
+			annInstance = findClassAnnotation(classContextOf(context), annotationType);
+		}
+
+		return annInstance;
+	}
+
+	/**
+	 * The class-level result for the context's test class, cached in the class context's Store.
+	 *
+	 * The namespace includes the class so that a nested class context never sees the cached
+	 * value of its enclosing class context (Store lookups fall back to parent contexts).  It is
+	 * created once per class (see ClassInfo.lookupNamespace), and a hit is a plain get, so only
+	 * a miss creates the lambda that computes the value.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <A extends Annotation> Optional<A> findClassAnnotation(ExtensionContext classContext, Class<A> annotationType) {
+		Class<?> clazz = classContext.getRequiredTestClass();
+		ExtensionContext.Store store = classContext.getStore(ClassInfo.of(clazz).lookupNamespace);
+
+		Optional<A> cached = store.get(annotationType, Optional.class);
+		if (cached != null) {
+			return cached;
+		}
+
+		return store.getOrComputeIfAbsent(annotationType,
+				t -> resolveClassAnnotation(classContext, clazz, annotationType), Optional.class);
+	}
 
-			// Use AnnotationSupport.findAnnotation to check for the simple cases (directly present annotations)
-			annInstance = AnnotationSupport.findAnnotation(Optional.of(context.getRequiredTestClass()), annotationType);
+	/**
+	 * Search just the class's own hierarchy, then for an inner class, use the enclosing class's
+	 * result, read from the parent context if it is the enclosing class's context.
+	 */
+	private static <A extends Annotation> Optional<A> resolveClassAnnotation(ExtensionContext classContext,
+			Class<?> clazz, Class<A> annotationType) {
 
-			if (! annInstance.isPresent()) {
-				// Now try searching inherited and nested annotations on classes
+		if (! mayHaveAnnotation(clazz, annotationType)) {
+			return Optional.empty();
+		}
+
+		Optional<A> annInstance = findAnnotationAssumeInheritence(clazz, annotationType);
+
+		if (annInstance.isPresent() || ! isInnerClass(clazz)) {
+			return annInstance;
+		}
 
-				annInstance = ExtensionUtil.findAnnotation(context.getRequiredTestClass(), annotationType);
+		Class<?> enclosing = clazz.getEnclosingClass();
+		Optional<ExtensionContext> parent = classContext.getParent();
 
+		if (parent.isPresent() && ! parent.get().getTestMethod().isPresent()
+				&& parent.get().getTestClass().orElse(null) == enclosing) {
+			return findClassAnnotation(parent.get(), annotationType);
+		}
+
+		return findAnnotation(enclosing, annotationType);
+	}
+
+	/**
+	 * The nearest class-level context:  The context itself, or for a method (or test template
+	 * invocation) context, the parent context of the test class.
+	 */
+	static ExtensionContext classContextOf(ExtensionContext context) {
+		ExtensionContext classContext = context;
+
+		while (classContext.getTestMethod().isPresent() && classContext.getParent().isPresent()) {
+			classContext = classContext.getParent().get();
+		}
+
+		return classContext;
+	}
+
+	/**
+	 * Every occurrence of the annotation that applies to the extension, in the same precedence
+	 * order as findAnnotationForExtension:  The test method (if any), then the test class, its
+	 * interfaces and superclasses, then its enclosing classes.  Each element contributes the
+	 * annotation directly present on it, or else its first meta-present one.
+	 *
+	 * The stream is lazy:  The hierarchy is only walked as far as the stream is consumed, so
+	 * findFirst() does the same work as findAnnotationForExtension (w/o its caching), and
+	 * collecting every occurrence is a single walk.
+	 *
+	 * @param context
+	 * @param annotationType
+	 * @return A sequential, ordered Stream
+	 * @param <A>
+	 */
+	public static <A extends Annotation> Stream<A> streamAnnotationsForExtension(ExtensionContext context, Class<A> annotationType) {
+		Preconditions.notNull(annotationType, "annotationType must not be null");
+
+		return StreamSupport.stream(new AnnotationSpliterator<>(
+				context.getTestMethod().orElse(null), context.getTestClass().orElse(null), annotationType), false);
+	}
+
+	/**
+	 * Like streamAnnotationsForExtension, but for just the class's own hierarchy:  The class,
+	 * its interfaces and superclasses, w/o the enclosing classes.
+	 *
+	 * @param clazz
+	 * @param annotationType
+	 * @return A sequential, ordered Stream, nearest first
+	 * @param <A>
+	 */
+	static <A extends Annotation> Stream<A> streamHierarchyAnnotations(Class<?> clazz, Class<A> annotationType) {
+		return StreamSupport.stream(new AnnotationSpliterator<>(
+				null, clazz, annotationType, HierarchyWalker.Scope.HIERARCHY), false);
+	}
+
+	/**
+	 * Find several annotation types for an extension in one pass, w/ the same precedence as
+	 * findAnnotationForExtension:  The test method first, then the test class, its interfaces and
+	 * superclasses, then its enclosing classes.
+	 *
+	 * Each node of the hierarchy is checked for all the types still being looked for, so the
+	 * hierarchy is walked once no matter how many types are requested, and the walk stops as
+	 * soon as every type has been found.
+	 *
+	 * @param context
+	 * @param annotationTypes
+	 * @return An unmodifiable map of each annotation type found to its annotation.  Types that
+	 * were not found are not in the map.
+	 */
+	public static Map<Class<? extends Annotation>, Annotation> findAnnotationsForExtension(ExtensionContext context,
+			Set<Class<? extends Annotation>> annotationTypes) {
+
+		Preconditions.notNull(annotationTypes, "annotationTypes must not be null");
+
+		Map<Class<? extends Annotation>, Annotation> found = new HashMap<>();
+		Set<Class<? extends Annotation>> remaining = new HashSet<>(annotationTypes);
+
+		// Look for the annotations on the method, if present.
+		if (context.getTestMethod().isPresent()) {
+			collectDirectOrMetaPresent(context.getRequiredTestMethod(), remaining, found);
+		}
+
+		// Look for the rest on the class, if present.
+		if (! remaining.isEmpty() && context.getTestClass().isPresent()) {
+			Class<?> clazz = context.getRequiredTestClass();
+
+			// Types that the index or the summary can answer don't need to be part of the walk
+			for (Iterator<Class<? extends Annotation>> it = remaining.iterator(); it.hasNext(); ) {
+				Class<? extends Annotation> type = it.next();
+
+				if (AnnotationIndex.covers(clazz, type)) {
+					findAnnotation(clazz, type).ifPresent(a -> found.put(type, a));
+					it.remove();
+				} else if (! AnnotationSummary.mayHaveAnnotation(clazz, type)) {
+					it.remove();
+				}
 			}
+
+			try (HierarchyWalker walker = HierarchyWalker.walk(clazz, HierarchyWalker.Scope.WITH_ENCLOSING, HierarchyWalker.UNLIMITED)) {
+				for (Class<?> node = walker.next(); node != null && ! remaining.isEmpty(); node = walker.next()) {
+					collectDirectOrMetaPresent(node, remaining, found);
+				}
+			}
+		}
+
+		return Collections.unmodifiableMap(found);
+	}
+
+	/**
+	 * Check a single element for each of the remaining types, moving the ones found to found.
+	 */
+	private static void collectDirectOrMetaPresent(AnnotatedElement element, Set<Class<? extends Annotation>> remaining,
+			Map<Class<? extends Annotation>, Annotation> found) {
+
+		for (Iterator<Class<? extends Annotation>> it = remaining.iterator(); it.hasNext(); ) {
+			Class<? extends Annotation> type = it.next();
+
+			Annotation annotation = findDirectOrMetaPresentOrNull(element, type);
+
+			if (annotation != null) {
+				found.put(type, annotation);
+				it.remove();
+			}
+		}
+	}
+
+	/**
+	 * Same search as findAnnotationForExtension, but w/ none of the optimizations:  No caches,
+	 * compile-time index or summaries, just the reflective walk of ReflectiveAnnotationSearch.
+	 * The reference the optimized lookup is checked against, and its baseline in the benchmarks.
+	 *
+	 * @param context
+	 * @param annotationType
+	 * @return
+	 * @param <A>
+	 */
+	static <A extends Annotation> Optional<A> findAnnotationForExtensionUncached(ExtensionContext context, Class<A> annotationType) {
+
+		Optional<A> annInstance = Optional.empty();
+
+		if (context.getTestMethod().isPresent()) {
+			annInstance = ReflectiveAnnotationSearch.findAnnotation(context.getRequiredTestMethod(), annotationType);
+		}
+
+		if (! annInstance.isPresent() && context.getTestClass().isPresent()) {
+			annInstance = ReflectiveAnnotationSearch.findAnnotation(context.getRequiredTestClass(), annotationType);
 		}
 
 		return annInstance;
 	}
 
+	private static <A extends Annotation> Optional<A> findMethodAnnotation(Method method, Class<A> annotationType) {
+		return Optional.ofNullable(findMethodAnnotationOrNull(method, annotationType));
+	}
+
+	/**
+	 * Directly present or meta-present on the method, the same as AnnotationSupport.findAnnotation
+	 * for a method.  Allocation-free once the method and its class have been seen.
+	 */
+	static <A extends Annotation> A findMethodAnnotationOrNull(Method method, Class<A> annotationType) {
+
+		if (AnnotationIndex.covers(method, annotationType) && ! AnnotationIndex.isPresent(method, annotationType)) {
+			return null;
+		}
+
+		return findDirectOrMetaPresentOrNull(method, annotationType);
+	}
+
+	/**
+	 * Cheap check, suitable to call before a full lookup:  Could findAnnotation(Class, Class)
+	 * possibly find the annotation type starting from this class?
+	 *
+	 * A false answer is definite and comes from a summary computed once per class of all the
+	 * annotation types reachable from it (its hierarchy, meta-annotations and enclosing classes).
+	 * A true answer means the full lookup may (but is not certain to) find it.
+	 *
+	 * @param clazz
+	 * @param annotationType
+	 * @return
+	 */
+	public static boolean mayHaveAnnotation(Class<?> clazz, Class<? extends Annotation> annotationType) {
+		Preconditions.notNull(clazz, "clazz must not be null");
+		Preconditions.notNull(annotationType, "annotationType must not be null");
+
+		if (AnnotationIndex.covers(clazz, annotationType)) {
+			return AnnotationIndex.sourceOf(clazz, annotationType) != null;
+		}
+
+		return AnnotationSummary.mayHaveAnnotation(clazz, annotationType);
+	}
 
 	/**
 	 * Copied from JUnit AnnotationUtils
 	 *
 	 * ref:  AnnotationUtils.findAnnotation(Class<?> clazz, Class<A> annotationType,
 	 * 			boolean searchEnclosingClasses)
+	 *
+	 * Results are cached per (class, annotation type), so once warm this doesn't allocate.
 	 * @param clazz
 	 * @param annotationType
 	 * @return
 	 * @param <A>
 	 */
 	public static <A extends Annotation> Optional<A> findAnnotation(Class<?> clazz, Class<A> annotationType) {
+		AnnotationLookupEvent event = AnnotationLookupEvent.start();
+		Optional<A> annotation = AnnotationCache.get(clazz, annotationType, ExtensionUtil::findAnnotationUncached);
 
-		Class<?> candidate = clazz;
-		while (candidate != null) {
-			Optional<A> annotation = findAnnotationAssumeInheritence(candidate, annotationType);
-			if (annotation.isPresent()) {
-				return annotation;
-			}
+		if (event != null) {
+			AnnotationLookupEvent.end(event, clazz, annotationType, annotation.isPresent());
+		}
 
-			// EE:  getEnclosingClass() returns null if top-level, so the logic is unneeded.
-			candidate = (isInnerClass(candidate) ? candidate.getEnclosingClass() : null);
+		return annotation;
+	}
+
+	private static <A extends Annotation> Optional<A> findAnnotationUncached(Class<?> clazz, Class<A> annotationType) {
+		return Optional.ofNullable(findAnnotationOrNull(clazz, annotationType));
+	}
+
+	/**
+	 * The internal, allocation-free version of findAnnotation(Class, Class):  Once the classes
+	 * involved have been seen, every step is a ClassValue or map read, and a missing annotation
+	 * is returned as null rather than an empty Optional.
+	 * @param clazz
+	 * @param annotationType
+	 * @return The annotation, or null if not found.
+	 * @param <A>
+	 */
+	static <A extends Annotation> A findAnnotationOrNull(Class<?> clazz, Class<A> annotationType) {
+
+		// The compile-time index, if there is one for this class, says which class has the annotation
+		if (AnnotationIndex.covers(clazz, annotationType)) {
+			Class<?> source = AnnotationIndex.sourceOf(clazz, annotationType);
+			return (source != null) ? findDirectOrMetaPresentOrNull(source, annotationType) : null;
 		}
-		return Optional.empty();
+
+		return searchAnnotationOrNull(clazz, annotationType);
 	}
 
 	/**
-	 * From JUnit AnnotationUtils.findAnnotation(AnnotatedElement element, Class<A> annotationType).
-	 * Modified to assume inheritence, which is how JUnit behaves WRT the effect of annotations.
-	 * @param element
+	 * The reflective search behind findAnnotation(Class, Class), w/o consulting the compile-time
+	 * annotation index.
+	 * @param clazz
 	 * @param annotationType
 	 * @return
 	 * @param <A>
 	 */
-	public static <A extends Annotation> Optional<A> findAnnotationAssumeInheritence(AnnotatedElement element, Class<A> annotationType) {
-		Preconditions.notNull(annotationType, "annotationType must not be null");
-		return findAnnotation(element, annotationType, true, new HashSet<>());
+	static <A extends Annotation> Optional<A> searchAnnotation(Class<?> clazz, Class<A> annotationType) {
+		return Optional.ofNullable(searchAnnotationOrNull(clazz, annotationType));
 	}
 
+	private static <A extends Annotation> A searchAnnotationOrNull(Class<?> clazz, Class<A> annotationType) {
+
+		if (! AnnotationSummary.mayHaveAnnotation(clazz, annotationType)) {
+			return null;
+		}
+
+		try (HierarchyWalker walker = HierarchyWalker.walk(clazz, HierarchyWalker.Scope.WITH_ENCLOSING, HierarchyWalker.UNLIMITED)) {
+			return findAnnotationOrNull(walker, annotationType);
+		}
+	}
 
 	/**
-	 * From JUnit AnnotationUtils.findAnnotation(AnnotatedElement element, Class<A> annotationType,
-	 * 			boolean inherited, Set<Annotation> visited)
+	 * Find the annotation directly present or meta-present on the element, w/o searching any
+	 * further (no interfaces, superclasses or enclosing classes).
 	 * @param element
 	 * @param annotationType
-	 * @param inherited
-	 * @param visited
-	 * @return
+	 * @return The annotation, or null if not found.
 	 * @param <A>
 	 */
-	private static <A extends Annotation> Optional<A> findAnnotation(AnnotatedElement element, Class<A> annotationType,
-			boolean inherited, Set<Annotation> visited) {
+	static <A extends Annotation> A findDirectOrMetaPresentOrNull(AnnotatedElement element, Class<A> annotationType) {
+		A annotation = element.getDeclaredAnnotation(annotationType);
+		if (annotation != null) {
+			return annotation;
+		}
 
+		return findMetaAnnotationOrNull(annotationType, ClassInfo.metaCandidates(element));
+	}
+
+	/**
+	 * From JUnit AnnotationUtils.findAnnotation(AnnotatedElement element, Class<A> annotationType).
+	 * Modified to assume inheritence, which is how JUnit behaves WRT the effect of annotations.
+	 * @param element
+	 * @param annotationType
+	 * @return
+	 * @param <A>
+	 */
+	public static <A extends Annotation> Optional<A> findAnnotationAssumeInheritence(AnnotatedElement element, Class<A> annotationType) {
 		Preconditions.notNull(annotationType, "annotationType must not be null");
 
 		if (element == null) {
 			return Optional.empty();
-		}
+		} else if (element instanceof Class) {
+			Class<?> clazz = (Class<?>) element;
 
-		// Directly present?
-		A annotation = element.getDeclaredAnnotation(annotationType);
-		if (annotation != null) {
-			return Optional.of(annotation);
+			if (! AnnotationSummary.mayHaveAnnotationInHierarchy(clazz, annotationType)) {
+				return Optional.empty();
+			}
+
+			return Optional.ofNullable(findInHierarchyOrNull(clazz, annotationType));
+		} else {
+			return Optional.ofNullable(findDirectOrMetaPresentOrNull(element, annotationType));
 		}
+	}
 
-		// Meta-present on directly present annotations?
-		Optional<A> directMetaAnnotation = findMetaAnnotation(annotationType, element.getDeclaredAnnotations(),
-				inherited, visited);
-		if (directMetaAnnotation.isPresent()) {
-			return directMetaAnnotation;
+
+	/**
+	 * From JUnit AnnotationUtils.findAnnotation(AnnotatedElement element, Class<A> annotationType,
+	 * 			boolean inherited, Set<Annotation> visited)
+	 *
+	 * Specialized for classes w/ inherited always true, and made allocation-free:
+	 * <ul>
+	 *   <li>Meta-annotations are looked up in the MetaAnnotationIndex rather than searched
+	 *   recursively, so there is no 'visited' set</li>
+	 *   <li>Interfaces and superclasses are walked by a HierarchyWalker rather than by recursion</li>
+	 *   <li>Not found is null rather than Optional.empty()</li>
+	 * </ul>
+	 * The original's final step, checking for meta-annotations on getAnnotations(), is left out:
+	 * Since the superclasses are always searched, every annotation it could see has already been
+	 * checked on the superclass that declares it.
+	 * @param clazz
+	 * @param annotationType
+	 * @return The annotation, or null if not found.
+	 * @param <A>
+	 */
+	private static <A extends Annotation> A findInHierarchyOrNull(Class<?> clazz, Class<A> annotationType) {
+		try (HierarchyWalker walker = HierarchyWalker.walk(clazz, HierarchyWalker.Scope.HIERARCHY, HierarchyWalker.UNLIMITED)) {
+			return findAnnotationOrNull(walker, annotationType);
 		}
+	}
 
-		if (element instanceof Class) {
-			Class<?> clazz = (Class<?>) element;
+	/**
+	 * Check each class of the walk in turn for the annotation, directly present or meta-present.
+	 * Parts of the hierarchy that the AnnotationSummary shows can't have the annotation are
+	 * skipped.  Afterwards the walker has the number of classes visited and whether its depth
+	 * limit cut the search short.
+	 *
+	 * @param walker A walk that has not been started (next() not yet called)
+	 * @param annotationType
+	 * @return The first annotation found in walk order, or null if not found.
+	 * @param <A>
+	 */
+	static <A extends Annotation> A findAnnotationOrNull(HierarchyWalker walker, Class<A> annotationType) {
+		for (Class<?> node = walker.next(); node != null; node = walker.next()) {
 
-			// Search on interfaces
-			for (Class<?> ifc : clazz.getInterfaces()) {
-				if (ifc != Annotation.class) {
-					Optional<A> annotationOnInterface = findAnnotation(ifc, annotationType, inherited, visited);
-					if (annotationOnInterface.isPresent()) {
-						return annotationOnInterface;
-					}
-				}
+			if (! AnnotationSummary.mayHaveAnnotationInHierarchy(node, annotationType)) {
+				walker.prune();
+				continue;
 			}
 
-			// Indirectly present?
-			// Search in class hierarchy
-			if (inherited) {
-				Class<?> superclass = clazz.getSuperclass();
-				if (superclass != null && superclass != Object.class) {
-					Optional<A> annotationOnSuperclass = findAnnotation(superclass, annotationType, inherited, visited);
-					if (annotationOnSuperclass.isPresent()) {
-						return annotationOnSuperclass;
-					}
-				}
+			A annotation = findDirectOrMetaPresentOrNull(node, annotationType);
+			if (annotation != null) {
+				return annotation;
 			}
 		}
 
-		// Meta-present on indirectly present annotations?
-		return findMetaAnnotation(annotationType, element.getAnnotations(), inherited, visited);
+		return null;
 	}
 
 	/**
 	 * From JUnit AnnotationUtils.findAnnotation(AnnotatedElement element, Class<A> annotationType,
 	 * 			boolean inherited, Set<Annotation> visited)
+	 *
+	 * Each candidate is a single probe into the precomputed MetaAnnotationIndex, which returns
+	 * the same match the recursive search would have.
 	 * @param annotationType
-	 * @param candidates
-	 * @param inherited
-	 * @param visited
-	 * @return
+	 * @param candidateTypes Declared annotation types, w/o the java.lang.annotation ones
+	 * @return The meta-annotation, or null if not found.
 	 * @param <A>
 	 */
-	private static <A extends Annotation> Optional<A> findMetaAnnotation(Class<A> annotationType,
-			Annotation[] candidates, boolean inherited, Set<Annotation> visited) {
+	private static <A extends Annotation> A findMetaAnnotationOrNull(Class<A> annotationType,
+			Class<? extends Annotation>[] candidateTypes) {
 
-		for (Annotation candidateAnnotation : candidates) {
-			Class<? extends Annotation> candidateAnnotationType = candidateAnnotation.annotationType();
-			if (!isInJavaLangAnnotationPackage(candidateAnnotationType) && visited.add(candidateAnnotation)) {
-				Optional<A> metaAnnotation = findAnnotation(candidateAnnotationType, annotationType, inherited,
-						visited);
-				if (metaAnnotation.isPresent()) {
-					return metaAnnotation;
-				}
+		for (Class<? extends Annotation> candidateAnnotationType : candidateTypes) {
+			A metaAnnotation = MetaAnnotationIndex.find(candidateAnnotationType, annotationType);
+			if (metaAnnotation != null) {
+				return metaAnnotation;
 			}
 		}
-		return Optional.empty();
-	}
-
-	private static boolean isInJavaLangAnnotationPackage(Class<? extends Annotation> annotationType) {
-		return (annotationType != null && annotationType.getName().startsWith("java.lang.annotation"));
+		return null;
 	}
 
 	/**
@@ -0,0 +1,229 @@
+package jextension;
+
+import java.util.Arrays;
+
+/**
+ * Iterative, depth-first walk over a class hierarchy, in the same order as JUnit's recursive
+ * AnnotationUtils.findAnnotation search:  The class, then each of its interfaces (and their
+ * super-interfaces) in declaration order, then its superclass and so on up to, but not
+ * including, Object.  Like that search, nothing is deduplicated, so an interface reachable two
+ * ways is visited twice.
+ *
+ * The walk keeps an explicit stack instead of recursing, so deep hierarchies cost stack array
+ * slots rather than thread stack frames, and the search loop stays small enough to inline.
+ * Walkers are reused per thread and the stack only grows, so once warm a walk allocates nothing.
+ *
+ * Usage:
+ * <pre>
+ * try (HierarchyWalker walker = HierarchyWalker.walk(clazz, Scope.HIERARCHY, HierarchyWalker.UNLIMITED)) {
+ *   for (Class&lt;?&gt; node = walker.next(); node != null; node = walker.next()) {
+ *     ...
+ *   }
+ * }
+ * </pre>
+ */
+final class HierarchyWalker implements AutoCloseable {
+
+	/** Which edges of the graph the walk follows */
+	enum Scope {
+		/** The class, its interfaces and superclasses */
+		HIERARCHY,
+
+		/** The class and its interfaces (and theirs), but no superclasses */
+		INTERFACES,
+
+		/** HIERARCHY, then for an inner class, the HIERARCHY of each enclosing class in turn */
+		WITH_ENCLOSING
+	}
+
+	/** maxDepth for a walk w/ no depth limit */
+	static final int UNLIMITED = Integer.MAX_VALUE;
+
+	private static final ThreadLocal<HierarchyWalker> CACHED = ThreadLocal.withInitial(HierarchyWalker::new);
+
+	private Class<?>[] stack = new Class<?>[16];
+	private int[] depths = new int[16];
+	private int size;
+
+	private Scope scope;
+	private int maxDepth;
+
+	/** The class the current HIERARCHY started from (changes as WITH_ENCLOSING moves outward) */
+	private Class<?> root;
+
+	private Class<?> current;
+	private int currentDepth;
+	private boolean expandCurrent;
+
+	private int visited;
+
+	/** Classes visited by walks on this thread that have been closed, kept on the thread's cached walker */
+	private long visitedOnThread;
+
+	/** The walker whose visitedOnThread this walk adds to when closed, or null for a detached walk */
+	private HierarchyWalker tally;
+	private boolean truncated;
+	private boolean inUse;
+
+	private HierarchyWalker() {
+		/* Use walk() */
+	}
+
+	/**
+	 * Start a walk.  The walker must be closed when done w/ it, so it can be reused.
+	 *
+	 * @param clazz The class to start from, which is the first node visited
+	 * @param scope Which edges to follow
+	 * @param maxDepth Don't go more than this many interface / superclass steps from the
+	 * starting class (each enclosing class starts again at zero).  UNLIMITED for no limit.
+	 * @return
+	 */
+	static HierarchyWalker walk(Class<?> clazz, Scope scope, int maxDepth) {
+		HierarchyWalker cached = CACHED.get();
+		HierarchyWalker walker = cached;
+
+		if (walker.inUse) {
+			walker = new HierarchyWalker();	// A walk started while another is in progress on this thread
+		}
+
+		walker.tally = cached;
+		return walker.start(clazz, scope, maxDepth);
+	}
+
+	/**
+	 * Start a walk w/ a walker of its own, rather than the thread's reusable one.  For walks that
+	 * are not finished in one go or may move between threads, like a lazily consumed Stream.
+	 * Closing it is optional.
+	 *
+	 * @param clazz
+	 * @param scope
+	 * @param maxDepth
+	 * @return
+	 */
+	static HierarchyWalker detached(Class<?> clazz, Scope scope, int maxDepth) {
+		return new HierarchyWalker().start(clazz, scope, maxDepth);
+	}
+
+	private HierarchyWalker start(Class<?> clazz, Scope scope, int maxDepth) {
+		this.inUse = true;
+		this.scope = scope;
+		this.maxDepth = maxDepth;
+		this.root = clazz;
+		this.current = null;
+		this.visited = 0;
+		this.truncated = false;
+		this.size = 0;
+		push(clazz, 0);
+
+		return this;
+	}
+
+	/**
+	 * The next class in the walk.
+	 *
+	 * @return The class, or null when the walk is complete.
+	 */
+	Class<?> next() {
+		if (current != null && expandCurrent) {
+			expand(current, currentDepth);
+		}
+
+		if (size == 0 && scope == Scope.WITH_ENCLOSING && root != null) {
+			root = ClassInfo.of(root).enclosingIfInner;
+
+			if (root != null) {
+				push(root, 0);
+			}
+		}
+
+		if (size == 0) {
+			current = null;
+			return null;
+		}
+
+		size--;
+		current = stack[size];
+		currentDepth = depths[size];
+		stack[size] = null;
+		expandCurrent = true;
+		visited++;
+
+		return current;
+	}
+
+	/**
+	 * Don't walk the interfaces or superclass of the class last returned by next(), e.g. because
+	 * a summary shows there is nothing to find there.
+	 */
+	void prune() {
+		expandCurrent = false;
+	}
+
+	/** Number of interface / superclass steps from the start (or enclosing) class to the current class */
+	int depth() {
+		return currentDepth;
+	}
+
+	/** Number of classes returned by next() so far */
+	int visited() {
+		return visited;
+	}
+
+	/** Did maxDepth stop the walk from going further? */
+	boolean isTruncated() {
+		return truncated;
+	}
+
+	@Override
+	public void close() {
+		Arrays.fill(stack, 0, size, null);	// Don't keep classes (and their loaders) reachable from the thread
+		size = 0;
+		root = null;
+		current = null;
+		inUse = false;
+
+		if (tally != null) {
+			tally.visitedOnThread += visited;
+			tally = null;
+		}
+	}
+
+	/**
+	 * The total number of classes visited by walks started w/ walk() on this thread and closed,
+	 * so the difference between two calls is the number visited in between.
+	 *
+	 * @return
+	 */
+	static long visitedOnThread() {
+		return CACHED.get().visitedOnThread;
+	}
+
+	private void expand(Class<?> clazz, int depth) {
+		ClassInfo info = ClassInfo.of(clazz);
+
+		if (depth >= maxDepth) {
+			truncated |= info.interfaces.length > 0 || (scope != Scope.INTERFACES && info.superclass != null);
+			return;
+		}
+
+		// Pushed in reverse, so the interfaces come off in declaration order, then the superclass
+		if (scope != Scope.INTERFACES && info.superclass != null) {
+			push(info.superclass, depth + 1);
+		}
+
+		for (int i = info.interfaces.length - 1; i >= 0; i--) {
+			push(info.interfaces[i], depth + 1);
+		}
+	}
+
+	private void push(Class<?> clazz, int depth) {
+		if (size == stack.length) {
+			stack = Arrays.copyOf(stack, size * 2);
+			depths = Arrays.copyOf(depths, size * 2);
+		}
+
+		stack[size] = clazz;
+		depths[size] = depth;
+		size++;
+	}
+}
@@ -0,0 +1,107 @@
+package jextension;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Records what extensions did (e.g. which callbacks ran), kept separately for each test
+ * (ExtensionContext unique id), so that tests running in parallel don't see each other's records.
+ *
+ * Appends are lock-free:  Each test's records are an array that an append replaces w/ a copy
+ * one longer, w/ a compare-and-set.  Tests record a handful of entries, so the copy is cheap,
+ * and in exchange a snapshot is just a read-only view of the current array, w/ no copying.
+ *
+ * A test can read its own records w/o its ExtensionContext through current():  JUnit runs a
+ * test's beforeEach callbacks, the test method and its afterEach callbacks on the same thread,
+ * so the last test recorded on the thread is the one running.
+ *
+ * @param <T> The type of record
+ */
+public final class InvocationRecorder<T> {
+
+	private static final Object[] NONE = new Object[0];
+
+	private final ConcurrentHashMap<String, Records> byTest = new ConcurrentHashMap<>();
+
+	/** The records of the test last recorded on this thread */
+	private final ThreadLocal<Records> current = new ThreadLocal<>();
+
+	/**
+	 * Add a record for the context's test.
+	 *
+	 * @param context
+	 * @param record
+	 */
+	public void record(ExtensionContext context, T record) {
+		String id = context.getUniqueId();
+		Records records = byTest.get(id);
+
+		if (records == null) {
+			records = byTest.computeIfAbsent(id, i -> new Records());
+		}
+
+		records.append(record);
+		current.set(records);
+	}
+
+	/**
+	 * The records for the context's test, in the order recorded.
+	 *
+	 * @param context
+	 * @return A read-only snapshot, unaffected by later records
+	 */
+	public List<T> get(ExtensionContext context) {
+		Records records = byTest.get(context.getUniqueId());
+		return (records != null) ? records.snapshot() : List.of();
+	}
+
+	/**
+	 * The records for the test running on this thread, in the order recorded.
+	 *
+	 * @return A read-only snapshot, unaffected by later records
+	 */
+	public List<T> current() {
+		Records records = current.get();
+		return (records != null) ? records.snapshot() : List.of();
+	}
+
+	/**
+	 * Forget the records of the context's test, e.g. in afterEach.
+	 *
+	 * @param context
+	 */
+	public void clear(ExtensionContext context) {
+		Records records = byTest.remove(context.getUniqueId());
+
+		if (records != null && current.get() == records) {
+			current.remove();
+		}
+	}
+
+	/** One test's records */
+	private final class Records {
+		private final AtomicReference<Object[]> values = new AtomicReference<>(NONE);
+
+		void append(T record) {
+			Object[] prev;
+			Object[] next;
+
+			do {
+				prev = values.get();
+				next = Arrays.copyOf(prev, prev.length + 1);
+				next[prev.length] = record;
+			} while (! values.compareAndSet(prev, next));
+		}
+
+		@SuppressWarnings("unchecked")
+		List<T> snapshot() {
+			// The array is never changed once published, so a view of it is a snapshot
+			return Collections.unmodifiableList(Arrays.asList((T[]) values.get()));
+		}
+	}
+}
@@ -0,0 +1,126 @@
+package jextension;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size, log-linear histogram of non-negative values (e.g. nanoseconds), w/ a relative
+ * error of at most 1/SUB_BUCKETS (12.5%) on the percentiles it reports.  The max is exact.
+ *
+ * Values below SUB_BUCKETS each get a bucket.  Above that, each power of two is split into
+ * SUB_BUCKETS equal buckets.  Recording is a bucket index computation and an atomic increment,
+ * so it is lock-free and allocation-free, and any number of threads can record at once.
+ * Histograms w/ the same layout (all of them) are merged by adding the buckets.
+ */
+public final class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	/** Enough buckets for any non-negative long */
+	private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Add a value.  Negative values (e.g. from a clock adjustment) count as zero.
+	 *
+	 * @param value
+	 */
+	public void record(long value) {
+		value = Math.max(value, 0);
+		counts.incrementAndGet(indexOf(value));
+
+		if (value > max.get()) {
+			max.accumulateAndGet(value, Math::max);
+		}
+	}
+
+	/**
+	 * Add all of another histogram's values to this one.
+	 *
+	 * @param other
+	 * @return this
+	 */
+	public LatencyHistogram merge(LatencyHistogram other) {
+		for (int i = 0; i < BUCKETS; i++) {
+			long count = other.counts.get(i);
+			if (count != 0) {
+				counts.addAndGet(i, count);
+			}
+		}
+
+		max.accumulateAndGet(other.max.get(), Math::max);
+		return this;
+	}
+
+	/**
+	 * The number of values recorded.
+	 *
+	 * @return
+	 */
+	public long count() {
+		long count = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			count += counts.get(i);
+		}
+		return count;
+	}
+
+	/**
+	 * The largest value recorded, exactly.
+	 *
+	 * @return
+	 */
+	public long max() {
+		return max.get();
+	}
+
+	/**
+	 * The value that the fraction of recorded values are at or below, reported as the top of its
+	 * bucket (but never more than the max).
+	 *
+	 * @param fraction E.g. 0.99 for the p99
+	 * @return The value, or 0 if nothing has been recorded
+	 */
+	public long percentile(double fraction) {
+		long count = count();
+		if (count == 0) {
+			return 0;
+		}
+
+		long rank = Math.max(1, (long) Math.ceil(fraction * count));
+		long seen = 0;
+
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts.get(i);
+			if (seen >= rank) {
+				return Math.min(highestValueIn(i), max());
+			}
+		}
+
+		return max();
+	}
+
+	static int indexOf(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+
+		int exponent = 63 - Long.numberOfLeadingZeros(value);		// >= SUB_BUCKET_BITS
+		int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+	}
+
+	static long highestValueIn(int index) {
+		if (index < SUB_BUCKETS) {
+			return index;
+		}
+
+		int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+		long width = 1L << (exponent - SUB_BUCKET_BITS);
+		long lowest = (SUB_BUCKETS + (index % SUB_BUCKETS)) * width;
+		return lowest + width - 1;
+	}
+}
@@ -0,0 +1,139 @@
+package jextension;
+
+import java.lang.annotation.Annotation;
+import java.util.*;
+
+/**
+ * Precomputed meta-annotation closure for each annotation type.
+ *
+ * For an annotation type T, the index maps every annotation type reachable through T's
+ * meta-annotations (at any depth) to the meta-annotation instance that JUnit's recursive
+ * search would return, and the path of annotation types leading to it.  The closure is
+ * computed once per annotation type, after which a meta-present lookup is a single map probe.
+ *
+ * Match order is the same as the recursive search in JUnit AnnotationUtils (depth first, in
+ * declaration order), so when a meta-annotation is reachable several ways, the first one in
+ * search order wins.  As in that search, java.lang.annotation types are found, but not
+ * searched into.
+ */
+final class MetaAnnotationIndex {
+
+	private static final ClassValue<Map<Class<? extends Annotation>, Entry>> INDEX = new ClassValue<>() {
+		@Override
+		@SuppressWarnings("unchecked")
+		protected Map<Class<? extends Annotation>, Entry> computeValue(Class<?> type) {
+			if (! type.isAnnotation()) {
+				return Map.of();
+			}
+
+			return buildClosure((Class<? extends Annotation>) type);
+		}
+	};
+
+	private MetaAnnotationIndex() {
+		/* NO OP - no instances */
+	}
+
+	/**
+	 * Find the annotationType as a meta-annotation (at any depth) of the candidate type.
+	 *
+	 * @param candidateType The annotation type to search from (not itself a match)
+	 * @param annotationType The annotation type to find
+	 * @return The meta-annotation instance, or null if not meta-present.
+	 * @param <A>
+	 */
+	@SuppressWarnings("unchecked")
+	static <A extends Annotation> A find(Class<? extends Annotation> candidateType, Class<A> annotationType) {
+		Entry entry = INDEX.get(candidateType).get(annotationType);
+		return (entry != null) ? (A) entry.annotation : null;
+	}
+
+	/**
+	 * The full index entry for annotationType as a meta-annotation of the candidate type.
+	 *
+	 * @param candidateType
+	 * @param annotationType
+	 * @return The entry, or null if not meta-present.
+	 */
+	static Entry entry(Class<? extends Annotation> candidateType, Class<? extends Annotation> annotationType) {
+		return INDEX.get(candidateType).get(annotationType);
+	}
+
+	/**
+	 * All the annotation types that are meta-present on the candidate type.
+	 *
+	 * @param candidateType
+	 * @return An unmodifiable set
+	 */
+	static Set<Class<? extends Annotation>> metaAnnotationTypes(Class<? extends Annotation> candidateType) {
+		return INDEX.get(candidateType).keySet();
+	}
+
+	private static Map<Class<? extends Annotation>, Entry> buildClosure(Class<? extends Annotation> root) {
+
+		Map<Class<? extends Annotation>, Entry> closure = new LinkedHashMap<>();
+		Set<Class<? extends Annotation>> visited = new HashSet<>();
+
+		// Each item is the path from the root to the node to visit (the last element)
+		Deque<List<Class<? extends Annotation>>> toVisit = new ArrayDeque<>();
+		toVisit.push(List.of(root));
+
+		while (! toVisit.isEmpty()) {
+			List<Class<? extends Annotation>> path = toVisit.pop();
+			Class<? extends Annotation> node = path.get(path.size() - 1);
+
+			if (! visited.add(node)) {
+				continue;
+			}
+
+			Annotation[] declared = node.getDeclaredAnnotations();
+
+			// Every annotation declared on this node is a match, unless an earlier node had it
+			for (Annotation ann : declared) {
+				closure.putIfAbsent(ann.annotationType(), new Entry(ann, path));
+			}
+
+			// Push in reverse so they are visited in declaration order
+			for (int i = declared.length - 1; i >= 0; i--) {
+				Class<? extends Annotation> child = declared[i].annotationType();
+				if (! isInJavaLangAnnotationPackage(child) && ! visited.contains(child)) {
+					List<Class<? extends Annotation>> childPath = new ArrayList<>(path);
+					childPath.add(child);
+					toVisit.push(List.copyOf(childPath));
+				}
+			}
+		}
+
+		return Collections.unmodifiableMap(closure);
+	}
+
+	private static boolean isInJavaLangAnnotationPackage(Class<? extends Annotation> annotationType) {
+		return annotationType.getName().startsWith("java.lang.annotation");
+	}
+
+	/**
+	 * A meta-annotation found in the index.
+	 */
+	static final class Entry {
+		private final Annotation annotation;
+		private final List<Class<? extends Annotation>> path;
+
+		Entry(Annotation annotation, List<Class<? extends Annotation>> path) {
+			this.annotation = annotation;
+			this.path = path;
+		}
+
+		/** The meta-annotation instance */
+		Annotation getAnnotation() {
+			return annotation;
+		}
+
+		/**
+		 * The annotation types leading to the meta-annotation, starting w/ the indexed type and
+		 * ending w/ the type that directly declares it.
+		 */
+		List<Class<? extends Annotation>> getPath() {
+			return path;
+		}
+	}
+}
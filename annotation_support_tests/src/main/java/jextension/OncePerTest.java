@@ -0,0 +1,74 @@
+package jextension;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * Opt-in guard for extensions that may be registered more than once.  JUnit calls an extension
+ * once per registration, so the same instance in several @RegisterExtension fields (or in a
+ * superclass and a @Nested class) gets each callback several times per test.
+ *
+ * An extension implements this and starts each callback w/:
+ * <pre>
+ * if (! firstCall(context, ExtensionCallback.BEFORE_EACH)) {
+ *     return;
+ * }
+ * </pre>
+ * so that its work is done at most once per test (per class for the *All callbacks), no
+ * matter how many times it is registered.  Extensions that override oncePerClass() to return
+ * true also collapse distinct instances of the same class.
+ *
+ * Each check is a single ExtensionContext.Store lookup, in a namespace for the context, so the
+ * record of what has run goes away w/ the context.
+ */
+public interface OncePerTest {
+
+	/**
+	 * Collapse every instance of the extension's class, rather than just repeats of this instance?
+	 *
+	 * @return false by default
+	 */
+	default boolean oncePerClass() {
+		return false;
+	}
+
+	/**
+	 * Is this the first call of the callback for this context, from this instance (or class, see
+	 * oncePerClass)?  Returns true once, and false for every other registration.
+	 *
+	 * @param context The context passed to the callback
+	 * @param callback The callback being run
+	 * @return True if the callback should do its work
+	 */
+	default boolean firstCall(ExtensionContext context, ExtensionCallback callback) {
+		// Per-context namespace:  Store lookups fall back to parent contexts, which must not
+		// count, e.g. a nested class's beforeAll is not a repeat of its enclosing class's.
+		ExtensionContext.Store store = context.getStore(ExtensionContext.Namespace.create(OncePerTest.class, context.getUniqueId()));
+		Claim claim = new Claim(oncePerClass() ? getClass() : this, callback);
+
+		return store.getOrComputeIfAbsent(claim, c -> claim) == claim;
+	}
+
+	/**
+	 * A (extension instance or class, callback) key.  Instances are compared by identity, so an
+	 * extension's own equals() does not merge distinct instances.
+	 */
+	final class Claim {
+		private final Object owner;
+		private final ExtensionCallback callback;
+
+		Claim(Object owner, ExtensionCallback callback) {
+			this.owner = owner;
+			this.callback = callback;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return (o instanceof Claim) && owner == ((Claim) o).owner && callback == ((Claim) o).callback;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * System.identityHashCode(owner) + callback.hashCode();
+		}
+	}
+}
@@ -0,0 +1,34 @@
+package jextension;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.ResourceAccessMode;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.junit.jupiter.api.parallel.Resources;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.*;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Apply a properties file for each test, always as a per-thread overlay (see OverlayConfigExt).
+ *
+ * The real System properties are never changed, so this only declares a READ lock on
+ * Resources.SYSTEM_PROPERTIES:  When tests run in parallel, annotated tests run alongside each
+ * other, but not while a test that changes the real System properties (w/ a READ_WRITE lock,
+ * e.g. @ConfigAnn) is running.
+ */
+@Target({ TYPE, METHOD, ANNOTATION_TYPE })
+@Retention(RUNTIME)
+@ExtendWith(OverlayConfigExt.class)
+@ResourceLock(value = Resources.SYSTEM_PROPERTIES, mode = ResourceAccessMode.READ)
+public @interface OverlayConfigAnn {
+
+	/**
+	 * The properties file, as for @ConfigAnn.
+	 *
+	 * @return
+	 */
+	String filepath();
+}
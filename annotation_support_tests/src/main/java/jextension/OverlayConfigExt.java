@@ -0,0 +1,57 @@
+package jextension;
+
+import org.junit.jupiter.api.extension.*;
+
+import java.io.IOException;
+
+/**
+ * Applies the properties file of the closest @OverlayConfigAnn (see
+ * ExtensionUtil.findAnnotationForExtension) as a per-thread overlay for each test, whether or not
+ * overlay mode is configured (see AppliedProperties.overlay).
+ *
+ * ConfigExt's configuration parameters don't apply:  Its class-scoped and diff modes work by
+ * leaving a configuration applied to the real System properties across tests, and its layered
+ * and prefetch modes look for @ConfigAnn.
+ */
+public class OverlayConfigExt implements BeforeEachCallback, AfterEachCallback {
+
+	private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(OverlayConfigExt.class);
+
+	public String findPath(final ExtensionContext context) {
+		OverlayConfigAnn ann = ExtensionUtil.findAnnotationForExtension(
+				context, OverlayConfigAnn.class).get();
+		return ann.filepath();
+	}
+
+	@Override
+	public void beforeEach(final ExtensionContext context) throws IOException {
+		long start = CallbackTimings.start();
+		ExtensionCallbackEvent event = ExtensionCallbackEvent.start();
+		String path = null;
+		try {
+			path = findPath(context);
+			AppliedProperties applied = AppliedProperties.overlay(PropertiesCache.shared().get(getClass(), path));
+			context.getStore(NAMESPACE).put(this, applied);
+		} finally {
+			CallbackTimings.record(context, this, ExtensionCallback.BEFORE_EACH, start);
+			ExtensionCallbackEvent.end(event, context, this, ExtensionCallback.BEFORE_EACH, path);
+		}
+	}
+
+	@Override
+	public void afterEach(final ExtensionContext context) {
+		long start = CallbackTimings.start();
+		ExtensionCallbackEvent event = ExtensionCallbackEvent.start();
+		try {
+			AppliedProperties applied = context.getStore(NAMESPACE).remove(this, AppliedProperties.class);
+
+			if (applied != null) {
+				applied.restore();
+			}
+		} finally {
+			CallbackTimings.record(context, this, ExtensionCallback.AFTER_EACH, start);
+			ExtensionCallbackEvent.end(event, context, this, ExtensionCallback.AFTER_EACH,
+					(event != null) ? findPath(context) : null);
+		}
+	}
+}
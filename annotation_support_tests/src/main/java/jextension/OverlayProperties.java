@@ -0,0 +1,277 @@
+package jextension;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * System properties w/ a per-thread overlay, so tests running in parallel can each see their
+ * own configuration.
+ *
+ * Once installed, this replaces the JVM's System properties object (w/ the same contents).
+ * Reads check the calling thread's layers first, newest first, then the normal properties.
+ * Writes (System.setProperty etc) are unchanged and go to the normal, shared properties.
+ *
+ * While the calling thread has a layer, the views and enumerations (keySet, entrySet,
+ * stringPropertyNames, list, store etc) are of the merged properties, as unmodifiable snapshots.
+ * W/o a layer, they are the normal, live ones.
+ *
+ * The layers are in an InheritableThreadLocal, so threads a test starts see its configuration.
+ * A thread can also inherit a layer by being created while some other test was running (e.g. a
+ * ForkJoinPool worker), so closed layers are skipped rather than trusted to be gone.
+ */
+public final class OverlayProperties extends Properties {
+
+	private static final InheritableThreadLocal<Layer> CURRENT = new InheritableThreadLocal<>();
+
+	private OverlayProperties(Properties base) {
+		putAll(base);
+	}
+
+	/**
+	 * Replace the System properties w/ an OverlayProperties, if not already done.
+	 */
+	public static synchronized void install() {
+		Properties current = System.getProperties();
+
+		if (! (current instanceof OverlayProperties)) {
+			System.setProperties(new OverlayProperties(current));
+		}
+	}
+
+	/**
+	 * Is an OverlayProperties installed as the System properties?
+	 *
+	 * @return
+	 */
+	public static boolean isInstalled() {
+		return System.getProperties() instanceof OverlayProperties;
+	}
+
+	/**
+	 * Add a layer of properties seen only by this thread (and threads it starts) until closed.
+	 * Installs the overlay if needed.
+	 *
+	 * @param props
+	 * @return The layer, which must be closed on the same thread to remove it.
+	 */
+	public static Layer push(Map<String, String> props) {
+		install();
+
+		Layer layer = new Layer(PropertySnapshot.of(props), CURRENT.get());
+		CURRENT.set(layer);
+		return layer;
+	}
+
+	@Override
+	public String getProperty(String key) {
+		for (Layer layer = CURRENT.get(); layer != null; layer = layer.parent) {
+			if (! layer.closed) {
+				String value = layer.values.get(key);
+				if (value != null) {
+					return value;
+				}
+			}
+		}
+
+		return super.getProperty(key);
+	}
+
+	@Override
+	public Object get(Object key) {
+		return (key instanceof String) ? getProperty((String) key) : super.get(key);
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return get(key) != null;
+	}
+
+	@Override
+	public Object getOrDefault(Object key, Object defaultValue) {
+		Object value = get(key);
+		return (value != null) ? value : defaultValue;
+	}
+
+	@Override
+	public boolean contains(Object value) {
+		return hasLayer() ? merged().contains(value) : super.contains(value);
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		return hasLayer() ? merged().containsValue(value) : super.containsValue(value);
+	}
+
+	@Override
+	public int size() {
+		return hasLayer() ? merged().size() : super.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return hasLayer() ? merged().isEmpty() : super.isEmpty();
+	}
+
+	@Override
+	public Set<String> stringPropertyNames() {
+		return hasLayer() ? merged().stringPropertyNames() : super.stringPropertyNames();
+	}
+
+	@Override
+	public Enumeration<?> propertyNames() {
+		return hasLayer() ? merged().propertyNames() : super.propertyNames();
+	}
+
+	@Override
+	public Enumeration<Object> keys() {
+		return hasLayer() ? merged().keys() : super.keys();
+	}
+
+	@Override
+	public Enumeration<Object> elements() {
+		return hasLayer() ? merged().elements() : super.elements();
+	}
+
+	@Override
+	public Set<Object> keySet() {
+		return hasLayer() ? Collections.unmodifiableSet(merged().keySet()) : super.keySet();
+	}
+
+	@Override
+	public Set<Map.Entry<Object, Object>> entrySet() {
+		return hasLayer() ? Collections.unmodifiableSet(merged().entrySet()) : super.entrySet();
+	}
+
+	@Override
+	public Collection<Object> values() {
+		return hasLayer() ? Collections.unmodifiableCollection(merged().values()) : super.values();
+	}
+
+	@Override
+	public void forEach(BiConsumer<? super Object, ? super Object> action) {
+		if (hasLayer()) {
+			merged().forEach(action);
+		} else {
+			super.forEach(action);
+		}
+	}
+
+	@Override
+	public void list(PrintStream out) {
+		if (hasLayer()) {
+			merged().list(out);
+		} else {
+			super.list(out);
+		}
+	}
+
+	@Override
+	public void list(PrintWriter out) {
+		if (hasLayer()) {
+			merged().list(out);
+		} else {
+			super.list(out);
+		}
+	}
+
+	@Override
+	public void store(Writer writer, String comments) throws IOException {
+		if (hasLayer()) {
+			merged().store(writer, comments);
+		} else {
+			super.store(writer, comments);
+		}
+	}
+
+	@Override
+	public void store(OutputStream out, String comments) throws IOException {
+		if (hasLayer()) {
+			merged().store(out, comments);
+		} else {
+			super.store(out, comments);
+		}
+	}
+
+	@Override
+	public void storeToXML(OutputStream os, String comment, Charset charset) throws IOException {
+		if (hasLayer()) {
+			merged().storeToXML(os, comment, charset);
+		} else {
+			super.storeToXML(os, comment, charset);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return hasLayer() ? merged().toString() : super.toString();
+	}
+
+	/** Does the calling thread have a layer that is not closed? */
+	private static boolean hasLayer() {
+		for (Layer layer = CURRENT.get(); layer != null; layer = layer.parent) {
+			if (! layer.closed) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/** A copy of the shared properties w/ the calling thread's layers on top */
+	private Properties merged() {
+		Deque<Layer> layers = new ArrayDeque<>();
+
+		for (Layer layer = CURRENT.get(); layer != null; layer = layer.parent) {
+			if (! layer.closed) {
+				layers.push(layer);		// Oldest ends up first, so newer layers are put last and win
+			}
+		}
+
+		Properties merged = new Properties();
+
+		for (Map.Entry<Object, Object> entry : super.entrySet()) {
+			merged.put(entry.getKey(), entry.getValue());
+		}
+
+		layers.forEach(layer -> merged.putAll(layer.values));
+		return merged;
+	}
+
+	/** One thread's layer of properties, on top of the layers that were current when it was pushed */
+	public static final class Layer implements AutoCloseable {
+		private final PropertySnapshot values;
+		private final Layer parent;
+		private volatile boolean closed;
+
+		private Layer(PropertySnapshot values, Layer parent) {
+			this.values = values;
+			this.parent = parent;
+		}
+
+		/**
+		 * Remove the layer.  On the pushing thread, the layers below it become current again.
+		 * On any other thread that inherited it, it is ignored from now on.
+		 */
+		@Override
+		public void close() {
+			closed = true;
+
+			if (CURRENT.get() == this) {
+				CURRENT.set(parent);
+			}
+		}
+	}
+}
@@ -0,0 +1,351 @@
+package jextension;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Process-wide cache of parsed properties resources, so that each file is read and parsed once
+ * per JVM rather than in every beforeEach and afterEach of every test that uses it.
+ *
+ * Entries are keyed by ClassLoader and resource name, resolved the same way as
+ * Class.getResourceAsStream (a path w/o a leading '/' is relative to the class's package).
+ * The loader is only weakly referenced, and the cache is bounded, evicting the least recently
+ * used entry when full.
+ *
+ * A path starting w/ FILE_PREFIX is a file system path instead (relative paths are resolved
+ * against the working directory).  A cached file is re-read only when its last modified time
+ * or size changes, which is checked on each get():  A stat per lookup, rather than a read.
+ *
+ * Resources and files are read and parsed by PropertiesLoader.
+ *
+ * The cached PropertySnapshots are immutable, so callers that hand properties to
+ * System.setProperties must use PropertySnapshot.toProperties() for a copy.
+ */
+public final class PropertiesCache {
+
+	/** Default maximum number of cached resources */
+	public static final int DEFAULT_MAX_ENTRIES = 128;
+
+	/** Marks a path as a file system path, rather than a classpath resource */
+	public static final String FILE_PREFIX = "file:";
+
+	private static final PropertiesCache SHARED = new PropertiesCache(DEFAULT_MAX_ENTRIES);
+
+	private final Map<Key, Entry> entries;
+
+	/** Prefetches in progress.  Guarded by the entries lock. */
+	private final Map<Key, CompletableFuture<PropertySnapshot>> pending = new HashMap<>();
+
+	private int loadCount;
+
+	private int joinCount;
+
+	/**
+	 * Most callers should use the shared() instance.
+	 *
+	 * @param maxEntries Number of resources to keep before evicting the least recently used.
+	 */
+	PropertiesCache(int maxEntries) {
+		entries = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+				return size() > maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * The cache shared by all the extensions in the JVM.
+	 *
+	 * @return
+	 */
+	public static PropertiesCache shared() {
+		return SHARED;
+	}
+
+	/**
+	 * The parsed properties for a resource or file, loading it on first use, and for a file,
+	 * again whenever it has changed.  If a prefetch of it is in progress, waits for that rather
+	 * than reading it again.
+	 *
+	 * @param base The class the path is resolved against, as for Class.getResourceAsStream
+	 * (not used for file paths)
+	 * @param path The resource path, or FILE_PREFIX and a file path
+	 * @return The properties
+	 * @throws IOException If the resource or file does not exist or can't be read
+	 */
+	public PropertySnapshot get(Class<?> base, String path) throws IOException {
+		return get(keyOf(base, path), base, path, true);
+	}
+
+	/**
+	 * Start loading a resource or file in the background, so a later get() finds it already
+	 * loaded (or waits for the load in progress).  Does nothing if it is already cached, or
+	 * already being prefetched.
+	 *
+	 * @param base As for get()
+	 * @param path As for get()
+	 * @param executor Runs the load
+	 * @return Completes w/ the properties, or exceptionally if they can't be loaded
+	 */
+	public CompletableFuture<PropertySnapshot> prefetch(Class<?> base, String path, Executor executor) {
+		Key key = keyOf(base, path);
+		CompletableFuture<PropertySnapshot> future;
+
+		synchronized (entries) {
+			future = pending.get(key);
+			if (future != null) {
+				return future;
+			}
+
+			Entry entry = entries.get(key);
+			if (entry != null && entry.stamp == null) {
+				return CompletableFuture.completedFuture(entry.props);		// Files may have changed, so are checked on the executor
+			}
+
+			future = new CompletableFuture<>();
+			pending.put(key, future);
+		}
+
+		CompletableFuture<PropertySnapshot> result = future;
+		executor.execute(() -> {
+			try {
+				result.complete(get(key, base, path, false));
+			} catch (Throwable t) {
+				result.completeExceptionally(t);
+			} finally {
+				synchronized (entries) {
+					pending.remove(key, result);
+				}
+			}
+		});
+
+		return result;
+	}
+
+	/**
+	 * @param joinPending Wait for a prefetch in progress rather than loading (false for the prefetch itself)
+	 */
+	private PropertySnapshot get(Key key, Class<?> base, String path, boolean joinPending) throws IOException {
+		return key.isFile()
+				? getFile(key, Path.of(key.name.substring(FILE_PREFIX.length())), joinPending)
+				: getResource(key, base, path, joinPending);
+	}
+
+	private PropertySnapshot getResource(Key key, Class<?> base, String path, boolean joinPending) throws IOException {
+		CompletableFuture<PropertySnapshot> inProgress;
+
+		synchronized (entries) {
+			Entry entry = entries.get(key);
+			if (entry != null) {
+				return entry.props;
+			}
+
+			inProgress = joinPending ? pending.get(key) : null;
+			if (inProgress != null) {
+				joinCount++;
+			}
+		}
+
+		if (inProgress != null) {
+			return join(inProgress);
+		}
+
+		// Load outside the lock, so a slow file doesn't hold up lookups of others.
+		// Two threads may both load the same file the first time, which is harmless.
+		PropertySnapshot props = load(base, path);
+
+		synchronized (entries) {
+			loadCount++;
+			Entry existing = entries.putIfAbsent(key, new Entry(props, null));
+			return (existing != null) ? existing.props : props;
+		}
+	}
+
+	private PropertySnapshot getFile(Key key, Path file, boolean joinPending) throws IOException {
+		CompletableFuture<PropertySnapshot> inProgress;
+
+		// Stat before reading:  If the file changes in between, the stamp is older than the
+		// content and the next get() reloads it, rather than the stale content being kept.
+		BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+		FileStamp stamp = new FileStamp(attrs.lastModifiedTime(), attrs.size());
+
+		synchronized (entries) {
+			Entry entry = entries.get(key);
+			if (entry != null && stamp.equals(entry.stamp)) {
+				return entry.props;
+			}
+
+			inProgress = joinPending ? pending.get(key) : null;
+			if (inProgress != null) {
+				joinCount++;
+			}
+		}
+
+		if (inProgress != null) {
+			return join(inProgress);
+		}
+
+		PropertySnapshot props = PropertiesLoader.load(file);
+
+		synchronized (entries) {
+			loadCount++;
+			Entry existing = entries.get(key);
+			if (existing != null && stamp.equals(existing.stamp)) {
+				return existing.props;
+			}
+
+			entries.put(key, new Entry(props, stamp));
+			return props;
+		}
+	}
+
+	/** The result of a prefetch, w/ its failure rethrown as it would have been by get() */
+	private static PropertySnapshot join(CompletableFuture<PropertySnapshot> future) throws IOException {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			Throwable cause = e.getCause();
+
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+
+			throw e;
+		}
+	}
+
+	/** Number of resources read and parsed so far (cache misses) */
+	int loadCount() {
+		synchronized (entries) {
+			return loadCount;
+		}
+	}
+
+	/** Number of get() calls so far that waited for a prefetch in progress, rather than loading */
+	int joinCount() {
+		synchronized (entries) {
+			return joinCount;
+		}
+	}
+
+	/** Number of resources currently cached */
+	int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	/** Drop all cached resources */
+	public void clear() {
+		synchronized (entries) {
+			entries.clear();
+		}
+	}
+
+	private static PropertySnapshot load(Class<?> base, String path) throws IOException {
+		return PropertiesLoader.load(base, path);
+	}
+
+	private static Key keyOf(Class<?> base, String path) {
+		if (path.startsWith(FILE_PREFIX)) {
+			return new Key(null, FILE_PREFIX + Path.of(path.substring(FILE_PREFIX.length())).toAbsolutePath().normalize());
+		}
+
+		return new Key(base.getClassLoader(), resolveName(base, path));
+	}
+
+	/** Same rules as Class.resolveName, which is private */
+	private static String resolveName(Class<?> base, String path) {
+		if (path.startsWith("/")) {
+			return path.substring(1);
+		}
+
+		String pkg = base.getPackageName();
+		return pkg.isEmpty() ? path : pkg.replace('.', '/') + "/" + path;
+	}
+
+	/** A cached snapshot, and for a file, the stamp of the file it was read from */
+	private static final class Entry {
+		final PropertySnapshot props;
+		final FileStamp stamp;		// null for a classpath resource
+
+		Entry(PropertySnapshot props, FileStamp stamp) {
+			this.props = props;
+			this.stamp = stamp;
+		}
+	}
+
+	/** What a file looked like when it was read */
+	private static final class FileStamp {
+		final FileTime lastModified;
+		final long size;
+
+		FileStamp(FileTime lastModified, long size) {
+			this.lastModified = lastModified;
+			this.size = size;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return (o instanceof FileStamp) && size == ((FileStamp) o).size
+					&& lastModified.equals(((FileStamp) o).lastModified);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * lastModified.hashCode() + Long.hashCode(size);
+		}
+	}
+
+	/**
+	 * A (ClassLoader, resource name) pair that doesn't keep the ClassLoader reachable.
+	 * Files have no loader, and FILE_PREFIX and the absolute path as the name.
+	 */
+	private static final class Key {
+		private final WeakReference<ClassLoader> loader;
+		private final boolean bootstrap;	// The null (bootstrap) loader, which a cleared reference can't be mistaken for
+		private final int loaderHash;
+		private final String name;
+
+		Key(ClassLoader loader, String name) {
+			this.loader = new WeakReference<>(loader);
+			this.bootstrap = (loader == null);
+			this.loaderHash = System.identityHashCode(loader);
+			this.name = name;
+		}
+
+		boolean isFile() {
+			return bootstrap && name.startsWith(FILE_PREFIX);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (! (o instanceof Key)) {
+				return false;
+			}
+
+			Key other = (Key) o;
+			ClassLoader mine = loader.get();
+			return name.equals(other.name) && loaderHash == other.loaderHash
+					&& mine == other.loader.get() && (mine != null || (bootstrap && other.bootstrap));
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * loaderHash + name.hashCode();
+		}
+	}
+}
@@ -0,0 +1,308 @@
+package jextension;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads .properties files straight into a PropertySnapshot, w/ the same results as
+ * Properties.load(InputStream):  ISO-8859-1, comment lines, line continuations, the key
+ * terminators (=, : and whitespace) and all the escapes, including unicode escapes.
+ *
+ * Files are read through a FileChannel into a heap buffer of the file's size.  They aren't
+ * memory mapped:  A mapping is only released when the buffer is garbage collected (and blocks
+ * editing the file on Windows until then), and a file truncated while mapped crashes the read
+ * w/ an InternalError or SIGBUS.  Other resources (e.g. in a jar) are read fully into a buffer.
+ * The parser works on the bytes directly:  Comment lines and whitespace are skipped w/o
+ * creating any Strings, and there's no Reader or per-line String as in Properties.load.
+ */
+final class PropertiesLoader {
+
+	/** Bytes parsed on each thread, so far */
+	private static final ThreadLocal<long[]> BYTES_READ = ThreadLocal.withInitial(() -> new long[1]);
+
+	private PropertiesLoader() {
+		/* NO OP - no instances */
+	}
+
+	/**
+	 * Load a resource, found as by Class.getResource.
+	 *
+	 * @param base
+	 * @param path
+	 * @return
+	 * @throws IOException If the resource does not exist or can't be read
+	 */
+	static PropertySnapshot load(Class<?> base, String path) throws IOException {
+		URL url = base.getResource(path);
+
+		if (url == null) {
+			throw new FileNotFoundException("Properties resource '" + path + "' not found from " + base.getName());
+		}
+
+		if ("file".equals(url.getProtocol())) {
+			try {
+				return load(Path.of(url.toURI()));
+			} catch (URISyntaxException | IllegalArgumentException e) {
+				// Fall through and read it as a stream
+			}
+		}
+
+		try (InputStream in = url.openStream()) {
+			return parse(ByteBuffer.wrap(in.readAllBytes()));
+		}
+	}
+
+	/**
+	 * Load a file.
+	 *
+	 * @param file
+	 * @return
+	 * @throws IOException
+	 */
+	static PropertySnapshot load(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = channel.size();
+
+			if (size > Integer.MAX_VALUE - 8) {
+				throw new IOException("Properties file '" + file + "' is too large: " + size + " bytes");
+			}
+
+			// A file truncated meanwhile just ends early; one that grows is read up to its old size
+			ByteBuffer buffer = ByteBuffer.allocate((int) size);
+			while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+				/* keep reading */
+			}
+
+			return parse(buffer.flip());
+		}
+	}
+
+	/**
+	 * Parse .properties content (ISO-8859-1) from the buffer's position to its limit.
+	 *
+	 * @param bytes
+	 * @return
+	 */
+	static PropertySnapshot parse(ByteBuffer bytes) {
+		BYTES_READ.get()[0] += bytes.remaining();
+		return new Parser(bytes).parse();
+	}
+
+	/**
+	 * The total number of bytes parsed on this thread, so the difference between two calls is
+	 * the number loaded in between.  Files loaded in the background (see ConfigPrefetcher) count
+	 * on the thread that loaded them.
+	 *
+	 * @return
+	 */
+	static long bytesReadOnThread() {
+		return BYTES_READ.get()[0];
+	}
+
+	/** Port of Properties.LineReader and Properties.load0 / loadConvert to work on bytes */
+	private static final class Parser {
+		private final ByteBuffer in;
+		private char[] line = new char[256];
+		private char[] converted = new char[256];
+
+		Parser(ByteBuffer in) {
+			this.in = in;
+		}
+
+		PropertySnapshot parse() {
+			PropertySnapshot.Builder props = new PropertySnapshot.Builder(in.remaining() / 64);
+
+			int len;
+			while ((len = readLine()) >= 0) {
+				int keyLen = 0;
+				int valueStart = len;
+				boolean hasSep = false;
+				boolean precedingBackslash = false;
+
+				while (keyLen < len) {
+					char c = line[keyLen];
+
+					if ((c == '=' || c == ':') && ! precedingBackslash) {
+						valueStart = keyLen + 1;
+						hasSep = true;
+						break;
+					} else if ((c == ' ' || c == '\t' || c == '\f') && ! precedingBackslash) {
+						valueStart = keyLen + 1;
+						break;
+					}
+
+					precedingBackslash = (c == '\\') && ! precedingBackslash;
+					keyLen++;
+				}
+
+				while (valueStart < len) {
+					char c = line[valueStart];
+
+					if (c != ' ' && c != '\t' && c != '\f') {
+						if (! hasSep && (c == '=' || c == ':')) {
+							hasSep = true;
+						} else {
+							break;
+						}
+					}
+					valueStart++;
+				}
+
+				props.put(convert(0, keyLen), convert(valueStart, len - valueStart));
+			}
+
+			return props.build();
+		}
+
+		/**
+		 * Read the next logical line (continuations joined) into line, w/o leading whitespace.
+		 * Blank and comment lines are skipped.
+		 *
+		 * @return The length, or -1 at the end of the input.
+		 */
+		private int readLine() {
+			int len = 0;
+			boolean skipWhiteSpace = true;
+			boolean appendedLineBegin = false;
+			boolean precedingBackslash = false;
+			boolean skipLF = false;
+
+			while (true) {
+				if (! in.hasRemaining()) {
+					if (len == 0) {
+						return -1;
+					}
+					return precedingBackslash ? len - 1 : len;
+				}
+
+				char c = (char) (in.get() & 0xFF);
+
+				if (skipLF) {
+					skipLF = false;
+					if (c == '\n') {
+						continue;
+					}
+				}
+
+				if (skipWhiteSpace) {
+					if (c == ' ' || c == '\t' || c == '\f') {
+						continue;
+					}
+					if (! appendedLineBegin && (c == '\r' || c == '\n')) {
+						continue;
+					}
+					skipWhiteSpace = false;
+					appendedLineBegin = false;
+				}
+
+				if (len == 0 && (c == '#' || c == '!')) {
+					skipComment();
+					skipWhiteSpace = true;
+					continue;
+				}
+
+				if (c != '\n' && c != '\r') {
+					if (len == line.length) {
+						line = Arrays.copyOf(line, len * 2);
+					}
+					line[len++] = c;
+					precedingBackslash = (c == '\\') && ! precedingBackslash;
+					continue;
+				}
+
+				// End of a physical line
+				if (len == 0) {
+					skipWhiteSpace = true;
+					continue;
+				}
+
+				if (! in.hasRemaining()) {
+					// EOF right after the line break ends the logical line, even after a continuation
+					// backslash, as in LineReader:  So a lone trailing "\\\n" is an empty key
+					return precedingBackslash ? len - 1 : len;
+				}
+
+				if (precedingBackslash) {
+					// Continuation:  Drop the backslash and join the next line, w/o its leading whitespace
+					len--;
+					skipWhiteSpace = true;
+					appendedLineBegin = true;
+					precedingBackslash = false;
+					skipLF = (c == '\r');
+				} else {
+					return len;
+				}
+			}
+		}
+
+		/** Skip to the end of the line, w/o building anything */
+		private void skipComment() {
+			while (in.hasRemaining()) {
+				byte b = in.get();
+				if (b == '\n' || b == '\r') {
+					return;
+				}
+			}
+		}
+
+		/** Unescape line[off, off + len) into a String */
+		private String convert(int off, int len) {
+			if (converted.length < len) {
+				converted = new char[Math.max(len, converted.length * 2)];
+			}
+
+			int out = 0;
+			int end = off + len;
+
+			while (off < end) {
+				char c = line[off++];
+
+				if (c != '\\') {
+					converted[out++] = c;
+					continue;
+				}
+
+				if (off >= end) {
+					break;		// A trailing lone backslash is dropped, as in Properties
+				}
+
+				c = line[off++];
+
+				if (c == 'u') {
+					if (off + 4 > end) {
+						throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+					}
+
+					int value = 0;
+					for (int i = 0; i < 4; i++) {
+						int digit = Character.digit(line[off++], 16);
+						if (digit < 0) {
+							throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+						}
+						value = (value << 4) | digit;
+					}
+					converted[out++] = (char) value;
+				} else {
+					switch (c) {
+						case 't': c = '\t'; break;
+						case 'r': c = '\r'; break;
+						case 'n': c = '\n'; break;
+						case 'f': c = '\f'; break;
+						default: break;
+					}
+					converted[out++] = c;
+				}
+			}
+
+			return new String(converted, 0, out);
+		}
+	}
+}
@@ -0,0 +1,266 @@
+package jextension;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * Compact, immutable table of string properties.
+ *
+ * Keys and values are held in two parallel arrays, laid out as an open-addressing hash table
+ * (linear probing, at most half full), so a snapshot is two arrays rather than a hash table of
+ * entry objects, and get() is an unsynchronized probe using the key's cached hashCode.
+ * Equal short values (flags, numbers, enum-like names, where repeats are common) within a
+ * snapshot share one String.  java.util.Properties, a synchronized Hashtable, is only
+ * created by toProperties(), where something needs an actual Properties.
+ *
+ * Implements Map so it can be used anywhere a read-only Map&lt;String, String&gt; is expected.
+ */
+public final class PropertySnapshot extends AbstractMap<String, String> {
+
+	private static final PropertySnapshot EMPTY = new PropertySnapshot(new String[1], new String[1], 0);
+
+	/** Hash table slots:  null for an empty slot */
+	private final String[] keys;
+	private final String[] values;
+	private final int size;
+
+	private PropertySnapshot(String[] keys, String[] values, int size) {
+		this.keys = keys;
+		this.values = values;
+		this.size = size;
+	}
+
+	/**
+	 * A snapshot of the string properties (including defaults) in props.
+	 *
+	 * @param props
+	 * @return
+	 */
+	public static PropertySnapshot of(Properties props) {
+		Builder builder = new Builder();
+		props.stringPropertyNames().forEach(name -> builder.put(name, props.getProperty(name)));
+		return builder.build();
+	}
+
+	/**
+	 * A snapshot of a map, which must not have null keys or values.
+	 *
+	 * @param map
+	 * @return
+	 */
+	public static PropertySnapshot of(Map<String, String> map) {
+		if (map instanceof PropertySnapshot) {
+			return (PropertySnapshot) map;
+		}
+
+		Builder builder = new Builder();
+		map.forEach(builder::put);
+		return builder.build();
+	}
+
+	@Override
+	public String get(Object key) {
+		if (! (key instanceof String)) {
+			return null;
+		}
+
+		int mask = keys.length - 1;
+		for (int i = key.hashCode() & mask; keys[i] != null; i = (i + 1) & mask) {
+			if (keys[i].equals(key)) {
+				return values[i];
+			}
+		}
+
+		return null;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return get(key) != null;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void forEach(BiConsumer<? super String, ? super String> action) {
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i] != null) {
+				action.accept(keys[i], values[i]);
+			}
+		}
+	}
+
+	/**
+	 * A new, modifiable Properties w/ the same contents, e.g. for System.setProperties.
+	 *
+	 * @return
+	 */
+	public Properties toProperties() {
+		Properties props = new Properties();
+		forEach(props::setProperty);
+		return props;
+	}
+
+	@Override
+	public Set<Entry<String, String>> entrySet() {
+		return new AbstractSet<>() {
+			@Override
+			public Iterator<Entry<String, String>> iterator() {
+				return new Iterator<>() {
+					private int next = advance(0);
+
+					private int advance(int from) {
+						while (from < keys.length && keys[from] == null) {
+							from++;
+						}
+						return from;
+					}
+
+					@Override
+					public boolean hasNext() {
+						return next < keys.length;
+					}
+
+					@Override
+					public Entry<String, String> next() {
+						if (next >= keys.length) {
+							throw new NoSuchElementException();
+						}
+
+						Entry<String, String> entry = new SimpleImmutableEntry<>(keys[next], values[next]);
+						next = advance(next + 1);
+						return entry;
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	/**
+	 * Builds a snapshot in place:  The table the builder fills is the one the snapshot uses.
+	 * A key put more than once keeps its last value, as in Properties.load.
+	 */
+	static final class Builder {
+
+		/** Values up to this length are shared */
+		static final int MAX_SHARED_VALUE_LENGTH = 16;
+
+		private String[] keys;
+		private String[] values;
+		private int size;
+
+		/** Short values seen so far, so equal values can share a String.  Same layout as keys. */
+		private String[] distinctValues = new String[16];
+		private int distinctCount;
+
+		Builder() {
+			this(8);
+		}
+
+		/**
+		 * @param expectedSize Roughly how many keys there will be, to avoid growing the table
+		 */
+		Builder(int expectedSize) {
+			int capacity = Integer.highestOneBit(Math.max(8, Math.min(expectedSize, 1 << 28)) * 2 - 1) * 2;
+			keys = new String[capacity];
+			values = new String[capacity];
+		}
+
+		/**
+		 * @param key Not null
+		 * @param value Not null
+		 * @return this
+		 */
+		Builder put(String key, String value) {
+			Objects.requireNonNull(key, "Null key");
+			Objects.requireNonNull(value, () -> "Null value for " + key);
+
+			if ((size + 1) * 2 > keys.length) {
+				rehash();
+			}
+
+			if (value.length() <= MAX_SHARED_VALUE_LENGTH) {
+				value = distinct(value);
+			}
+
+			int mask = keys.length - 1;
+			int i = key.hashCode() & mask;
+			for (; keys[i] != null; i = (i + 1) & mask) {
+				if (keys[i].equals(key)) {
+					values[i] = value;
+					return this;
+				}
+			}
+
+			keys[i] = key;
+			values[i] = value;
+			size++;
+			return this;
+		}
+
+		/**
+		 * The snapshot.  The builder must not be used afterwards.
+		 *
+		 * @return
+		 */
+		PropertySnapshot build() {
+			PropertySnapshot snapshot = (size == 0) ? EMPTY : new PropertySnapshot(keys, values, size);
+			keys = null;
+			values = null;
+			distinctValues = null;
+			return snapshot;
+		}
+
+		private String distinct(String value) {
+			if ((distinctCount + 1) * 2 > distinctValues.length) {
+				String[] old = distinctValues;
+				distinctValues = new String[old.length * 2];
+				for (String v : old) {
+					if (v != null) {
+						distinctValues[slot(distinctValues, v)] = v;
+					}
+				}
+			}
+
+			int i = slot(distinctValues, value);
+			if (distinctValues[i] == null) {
+				distinctValues[i] = value;
+				distinctCount++;
+			}
+			return distinctValues[i];
+		}
+
+		/** The slot holding s, or the empty slot where it would go */
+		private static int slot(String[] table, String s) {
+			int mask = table.length - 1;
+			int i = s.hashCode() & mask;
+			while (table[i] != null && ! table[i].equals(s)) {
+				i = (i + 1) & mask;
+			}
+			return i;
+		}
+
+		private void rehash() {
+			String[] oldKeys = keys;
+			String[] oldValues = values;
+			keys = new String[oldKeys.length * 2];
+			values = new String[oldKeys.length * 2];
+
+			for (int j = 0; j < oldKeys.length; j++) {
+				if (oldKeys[j] != null) {
+					int i = slot(keys, oldKeys[j]);
+					keys[i] = oldKeys[j];
+					values[i] = oldValues[j];
+				}
+			}
+		}
+	}
+}
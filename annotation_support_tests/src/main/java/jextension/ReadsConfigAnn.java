@@ -0,0 +1,25 @@
+package jextension;
+
+import org.junit.jupiter.api.parallel.ResourceAccessMode;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.junit.jupiter.api.parallel.Resources;
+
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.*;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * For a test that reads System properties a configuration sets, but doesn't apply one itself.
+ * This declares a READ lock on Resources.SYSTEM_PROPERTIES, the same lock @OverlayConfigAnn
+ * declares, so when tests run in parallel, it runs alongside them and other readers, but never
+ * while a test w/ a READ_WRITE lock (e.g. @ConfigAnn or @SimpleAnn) is changing the real System
+ * properties.
+ */
+@Target({ TYPE, METHOD, ANNOTATION_TYPE })
+@Inherited
+@Retention(RUNTIME)
+@ResourceLock(value = Resources.SYSTEM_PROPERTIES, mode = ResourceAccessMode.READ)
+public @interface ReadsConfigAnn { }
@@ -0,0 +1,118 @@
+package jextension;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The original ExtensionUtil class search, before any of the caches, the compile-time index or
+ * the summaries:  A plain recursive walk over the reflection API, allocating as it goes.
+ *
+ * Kept as the reference that the optimized lookups are checked against in tests, and as the
+ * baseline in the benchmarks.  Not for use in the extensions.
+ */
+final class ReflectiveAnnotationSearch {
+
+	private ReflectiveAnnotationSearch() {
+		/* NO OP - no instances */
+	}
+
+	/**
+	 * Same result as ExtensionUtil.findAnnotation(Class, Class):  The class, its interfaces and
+	 * superclasses, then the same for each enclosing class of an inner class.
+	 *
+	 * @param clazz
+	 * @param annotationType
+	 * @return
+	 * @param <A>
+	 */
+	static <A extends Annotation> Optional<A> findAnnotation(Class<?> clazz, Class<A> annotationType) {
+
+		Class<?> candidate = clazz;
+		while (candidate != null) {
+			Optional<A> annotation = findAnnotation(candidate, annotationType, new HashSet<>());
+			if (annotation.isPresent()) {
+				return annotation;
+			}
+
+			candidate = (ExtensionUtil.isInnerClass(candidate) ? candidate.getEnclosingClass() : null);
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * Directly present or meta-present on the element, then for a class, its interfaces and
+	 * superclasses (inheritance assumed).
+	 *
+	 * @param element
+	 * @param annotationType
+	 * @return
+	 * @param <A>
+	 */
+	static <A extends Annotation> Optional<A> findAnnotation(AnnotatedElement element, Class<A> annotationType) {
+		return findAnnotation(element, annotationType, new HashSet<>());
+	}
+
+	/**
+	 * From JUnit AnnotationUtils.findAnnotation(AnnotatedElement element, Class<A> annotationType,
+	 * 			boolean inherited, Set<Annotation> visited), w/ inherited always true
+	 */
+	private static <A extends Annotation> Optional<A> findAnnotation(AnnotatedElement element, Class<A> annotationType,
+			Set<Annotation> visited) {
+
+		// Directly present?
+		A annotation = element.getDeclaredAnnotation(annotationType);
+		if (annotation != null) {
+			return Optional.of(annotation);
+		}
+
+		// Meta-present on directly present annotations?
+		Optional<A> directMetaAnnotation = findMetaAnnotation(annotationType, element.getDeclaredAnnotations(), visited);
+		if (directMetaAnnotation.isPresent()) {
+			return directMetaAnnotation;
+		}
+
+		if (element instanceof Class) {
+			Class<?> clazz = (Class<?>) element;
+
+			// Search on interfaces
+			for (Class<?> ifc : clazz.getInterfaces()) {
+				if (ifc != Annotation.class) {
+					Optional<A> annotationOnInterface = findAnnotation(ifc, annotationType, visited);
+					if (annotationOnInterface.isPresent()) {
+						return annotationOnInterface;
+					}
+				}
+			}
+
+			// Search in class hierarchy
+			Class<?> superclass = clazz.getSuperclass();
+			if (superclass != null && superclass != Object.class) {
+				Optional<A> annotationOnSuperclass = findAnnotation(superclass, annotationType, visited);
+				if (annotationOnSuperclass.isPresent()) {
+					return annotationOnSuperclass;
+				}
+			}
+		}
+
+		// Meta-present on indirectly present annotations?
+		return findMetaAnnotation(annotationType, element.getAnnotations(), visited);
+	}
+
+	private static <A extends Annotation> Optional<A> findMetaAnnotation(Class<A> annotationType,
+			Annotation[] candidates, Set<Annotation> visited) {
+
+		for (Annotation candidateAnnotation : candidates) {
+			Class<? extends Annotation> candidateAnnotationType = candidateAnnotation.annotationType();
+			if (! candidateAnnotationType.getName().startsWith("java.lang.annotation") && visited.add(candidateAnnotation)) {
+				Optional<A> metaAnnotation = findAnnotation(candidateAnnotationType, annotationType, visited);
+				if (metaAnnotation.isPresent()) {
+					return metaAnnotation;
+				}
+			}
+		}
+		return Optional.empty();
+	}
+}
@@ -0,0 +1,159 @@
+package jextension;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.Extension;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.extension.TestInstances;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.junit.platform.commons.support.HierarchyTraversalMode;
+import org.junit.platform.commons.support.ReflectionSupport;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * How an extension instance was registered, worked out from where it can be found:
+ * In a @RegisterExtension field, named by an @ExtendWith directly on the test method, class
+ * (or its hierarchy) or an enclosing class, named by an annotation composed w/ @ExtendWith
+ * (e.g. @ConfigAnn) there, or listed for ServiceLoader autodetection.
+ */
+public enum RegistrationSource {
+
+	/** @ExtendWith directly on the test method or a class */
+	DECLARATIVE,
+
+	/** An annotation w/ @ExtendWith as a meta-annotation */
+	COMPOSED,
+
+	/** A @RegisterExtension field */
+	PROGRAMMATIC,
+
+	/** Loaded by ServiceLoader, w/ junit.jupiter.extensions.autodetection.enabled */
+	AUTODETECTED,
+
+	/** None of the above, e.g. @ExtendWith on a field or parameter */
+	UNKNOWN;
+
+	/** JUnit configuration parameter that turns on ServiceLoader autodetection */
+	static final String AUTODETECTION_PARAMETER = "junit.jupiter.extensions.autodetection.enabled";
+
+	/**
+	 * Where the extension instance came from.  This looks through fields and annotations, so
+	 * callers should remember the answer for the instance.
+	 *
+	 * @param context The context of a callback of the extension
+	 * @param extension
+	 * @return
+	 */
+	static RegistrationSource of(ExtensionContext context, Object extension) {
+		if (isInField(context, extension)) {
+			return PROGRAMMATIC;
+		}
+
+		Class<?> type = extension.getClass();
+		boolean composed = false;
+
+		if (context.getTestMethod().isPresent()) {
+			if (namesDirectly(context.getRequiredTestMethod(), type)) {
+				return DECLARATIVE;
+			}
+			composed = namesThroughAnnotation(context.getRequiredTestMethod(), type);
+		}
+
+		if (context.getTestClass().isPresent()) {
+			try (HierarchyWalker walker = HierarchyWalker.walk(context.getRequiredTestClass(),
+					HierarchyWalker.Scope.WITH_ENCLOSING, HierarchyWalker.UNLIMITED)) {
+
+				for (Class<?> node = walker.next(); node != null; node = walker.next()) {
+					if (namesDirectly(node, type)) {
+						return DECLARATIVE;
+					}
+					composed = composed || namesThroughAnnotation(node, type);
+				}
+			}
+		}
+
+		if (composed) {
+			return COMPOSED;
+		}
+
+		return isAutodetected(context, type) ? AUTODETECTED : UNKNOWN;
+	}
+
+	private static boolean namesDirectly(AnnotatedElement element, Class<?> type) {
+		for (ExtendWith extendWith : element.getDeclaredAnnotationsByType(ExtendWith.class)) {
+			for (Class<?> value : extendWith.value()) {
+				if (value == type) {
+					return true;
+				}
+			}
+		}
+
+		return false;
+	}
+
+	/** Is the type named by an @ExtendWith, either directly or as a meta-annotation? */
+	private static boolean namesThroughAnnotation(AnnotatedElement element, Class<?> type) {
+		for (ExtendWith extendWith : AnnotationSupport.findRepeatableAnnotations(element, ExtendWith.class)) {
+			for (Class<?> value : extendWith.value()) {
+				if (value == type) {
+					return true;
+				}
+			}
+		}
+
+		return false;
+	}
+
+	/** Is autodetection on, and the type listed for ServiceLoader (found w/o loading the others)? */
+	private static boolean isAutodetected(ExtensionContext context, Class<?> type) {
+		if (! context.getConfigurationParameter(AUTODETECTION_PARAMETER, Boolean::parseBoolean).orElse(false)) {
+			return false;
+		}
+
+		ClassLoader loader = Thread.currentThread().getContextClassLoader();
+		return ServiceLoader.load(Extension.class, (loader != null) ? loader : type.getClassLoader()).stream()
+				.anyMatch(provider -> provider.type() == type);
+	}
+
+	/** Is the instance in a @RegisterExtension field of a test instance, or a static one of a test class? */
+	private static boolean isInField(ExtensionContext context, Object extension) {
+		List<Object> instances = context.getTestInstances().map(TestInstances::getAllInstances).orElse(List.of());
+
+		for (Object instance : instances) {
+			if (isInField(instance.getClass(), instance, extension)) {
+				return true;
+			}
+		}
+
+		// W/o test instances (e.g. a class-level callback), only static fields can be checked
+		for (Class<?> clazz = context.getTestClass().orElse(null); clazz != null; clazz = clazz.getEnclosingClass()) {
+			if (isInField(clazz, null, extension)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static boolean isInField(Class<?> clazz, Object instance, Object extension) {
+		List<Field> fields = ReflectionSupport.findFields(clazz,
+				f -> AnnotationSupport.isAnnotated(f, RegisterExtension.class)
+						&& (instance != null || Modifier.isStatic(f.getModifiers())),
+				HierarchyTraversalMode.TOP_DOWN);
+
+		for (Field field : fields) {
+			Object target = Modifier.isStatic(field.getModifiers()) ? null : instance;
+
+			if (ReflectionSupport.tryToReadFieldValue(field, target).toOptional().orElse(null) == extension) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+}
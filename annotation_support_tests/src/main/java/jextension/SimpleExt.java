@@ -3,22 +3,40 @@ package jextension;
 import org.junit.jupiter.api.extension.*;
 
 import java.io.IOException;
-import java.util.Properties;
 
 public class SimpleExt implements BeforeEachCallback, AfterEachCallback {
 
+	private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(SimpleExt.class);
+
+	private static final String PATH = "/MyFile.props";
+
 	@Override
 	public void beforeEach(final ExtensionContext context) throws IOException {
-		Properties props = new Properties();
-		props.load(getClass().getResourceAsStream("/MyFile.props"));
-		System.setProperties(props);
+		long start = CallbackTimings.start();
+		ExtensionCallbackEvent event = ExtensionCallbackEvent.start();
+		try {
+			AppliedProperties applied = AppliedProperties.apply(context, PropertiesCache.shared().get(getClass(), PATH));
+			context.getStore(NAMESPACE).put(this, applied);
+		} finally {
+			CallbackTimings.record(context, this, ExtensionCallback.BEFORE_EACH, start);
+			ExtensionCallbackEvent.end(event, context, this, ExtensionCallback.BEFORE_EACH, PATH);
+		}
 	}
 
 	@Override
-	public void afterEach(final ExtensionContext context) throws IOException {
-		// reset the sys props ...
-		Properties props = new Properties();
-		props.load(getClass().getResourceAsStream("/MyFile.props"));
-		props.keySet().stream().forEach(k -> System.getProperties().remove(k));
+	public void afterEach(final ExtensionContext context) {
+		long start = CallbackTimings.start();
+		ExtensionCallbackEvent event = ExtensionCallbackEvent.start();
+		try {
+			// reset the sys props to what they were before this test
+			AppliedProperties applied = context.getStore(NAMESPACE).remove(this, AppliedProperties.class);
+
+			if (applied != null) {
+				applied.restore();
+			}
+		} finally {
+			CallbackTimings.record(context, this, ExtensionCallback.AFTER_EACH, start);
+			ExtensionCallbackEvent.end(event, context, this, ExtensionCallback.AFTER_EACH, PATH);
+		}
 	}
 }
@@ -0,0 +1,120 @@
+package jextension;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The snapshot currently applied as System properties, for moving from one test's configuration
+ * to the next by applying only the difference:  Keys that were added or changed are set, and
+ * keys that are no longer in the configuration are put back to their original values.
+ *
+ * The difference between two snapshots is computed once and kept (by snapshot identity), so
+ * moving between configurations that have been seen before costs only the changed keys.
+ * The original value of each key is recorded the first time it is touched, and restore() puts
+ * them all back.
+ *
+ * Unlike AppliedProperties, the properties are not restored after each test, so a test that
+ * changes an applied System property itself is not undone before the next test.
+ */
+final class TrackedProperties {
+
+	private static final PropertySnapshot EMPTY = PropertySnapshot.of(Map.of());
+
+	private PropertySnapshot current = EMPTY;
+
+	/** The value of each key touched before it was first touched, or null if it was not set */
+	private final Map<String, String> originals = new HashMap<>();
+
+	/** Differences seen so far:  From snapshot, to snapshot, difference */
+	private final Map<PropertySnapshot, Map<PropertySnapshot, Diff>> diffs = new IdentityHashMap<>();
+
+	/**
+	 * Make the System properties match next (for its keys), applying only what differs from the
+	 * current snapshot.
+	 *
+	 * @param next
+	 * @return The number of keys set or cleared
+	 */
+	synchronized int switchTo(PropertySnapshot next) {
+		if (next == current) {
+			return 0;
+		}
+
+		Diff diff = diffs.computeIfAbsent(current, c -> new IdentityHashMap<>())
+				.computeIfAbsent(next, n -> new Diff(current, n));
+
+		for (String key : diff.removed) {
+			restore(key);
+		}
+
+		for (int i = 0; i < diff.setKeys.length; i++) {
+			String key = diff.setKeys[i];
+			String prior = System.setProperty(key, diff.setValues[i]);
+
+			if (! originals.containsKey(key)) {
+				originals.put(key, prior);
+			}
+		}
+
+		current = next;
+		return diff.removed.length + diff.setKeys.length;
+	}
+
+	/**
+	 * Put every key that was touched back to its original value.
+	 */
+	synchronized void restore() {
+		originals.keySet().forEach(this::restore);
+		originals.clear();
+		diffs.clear();
+		current = EMPTY;
+	}
+
+	/** The snapshot last switched to */
+	synchronized PropertySnapshot current() {
+		return current;
+	}
+
+	private void restore(String key) {
+		String original = originals.get(key);
+
+		if (original != null) {
+			System.setProperty(key, original);
+		} else {
+			System.clearProperty(key);
+		}
+	}
+
+	/** What to change to go from one snapshot to another */
+	private static final class Diff {
+		final String[] setKeys;
+		final String[] setValues;
+		final String[] removed;
+
+		Diff(PropertySnapshot from, PropertySnapshot to) {
+			List<String> keys = new ArrayList<>();
+			List<String> values = new ArrayList<>();
+			List<String> gone = new ArrayList<>();
+
+			to.forEach((key, value) -> {
+				if (! value.equals(from.get(key))) {
+					keys.add(key);
+					values.add(value);
+				}
+			});
+
+			from.forEach((key, value) -> {
+				if (! to.containsKey(key)) {
+					gone.add(key);
+				}
+			});
+
+			setKeys = keys.toArray(new String[0]);
+			setValues = values.toArray(new String[0]);
+			removed = gone.toArray(new String[0]);
+		}
+	}
+}
@@ -0,0 +1,114 @@
+package jextension;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Retention;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Once a class has been seen, the ExtensionUtil class and method lookups should not allocate,
+ * hits or misses:  The public findAnnotation(Class, Class), and the internal *OrNull lookups
+ * behind it and findAnnotationForExtension.  findAnnotationForExtension itself is not covered,
+ * since the ExtensionContext methods it calls allocate.
+ */
+public class AllocationTest {
+
+	static final int ROUNDS = 10_000;
+
+	/** Registering types (answered from the index) plus a type that needs the reflective search */
+	@SuppressWarnings("unchecked")
+	static final Class<? extends Annotation>[] TYPES = new Class[] {
+			SimpleAnn.class, SimpleAnnInherited.class, ConfigAnn.class,
+			ComposedFromSimpleAnn.class, ComposedFromSimpleAnnInherited.class, Retention.class };
+
+	@Test
+	public void publicClassLookupsShouldNotAllocateOnceWarm() {
+		Class<?>[] scenarios = AnnotationIndexTest.SCENARIOS.toArray(Class<?>[]::new);
+
+		double perLookup = bytesPerLookup(() -> {
+			int found = 0;
+			for (Class<?> scenario : scenarios) {
+				for (Class<? extends Annotation> annType : TYPES) {
+					found += ExtensionUtil.findAnnotation(scenario, annType).isPresent() ? 1 : 0;
+				}
+			}
+			return found;
+		}, scenarios.length * TYPES.length);
+
+		assertTrue(perLookup < 1.0, "Class lookups allocated " + perLookup + " bytes each");
+	}
+
+	@Test
+	public void internalClassLookupsShouldNotAllocateOnceWarm() {
+		Class<?>[] scenarios = AnnotationIndexTest.SCENARIOS.toArray(Class<?>[]::new);
+
+		double perLookup = bytesPerLookup(() -> {
+			int found = 0;
+			for (Class<?> scenario : scenarios) {
+				for (Class<? extends Annotation> annType : TYPES) {
+					found += (ExtensionUtil.findAnnotationOrNull(scenario, annType) != null) ? 1 : 0;
+				}
+			}
+			return found;
+		}, scenarios.length * TYPES.length);
+
+		assertTrue(perLookup < 1.0, "Class lookups allocated " + perLookup + " bytes each");
+	}
+
+	@Test
+	public void internalMethodLookupsShouldNotAllocateOnceWarm() {
+		Method[] methods = AnnotationIndexTest.SCENARIOS.stream()
+				.flatMap(c -> Arrays.stream(c.getDeclaredMethods())).toArray(Method[]::new);
+
+		double perLookup = bytesPerLookup(() -> {
+			int found = 0;
+			for (Method method : methods) {
+				for (Class<? extends Annotation> annType : TYPES) {
+					found += (ExtensionUtil.findMethodAnnotationOrNull(method, annType) != null) ? 1 : 0;
+				}
+			}
+			return found;
+		}, methods.length * TYPES.length);
+
+		assertTrue(perLookup < 1.0, "Method lookups allocated " + perLookup + " bytes each");
+	}
+
+	/**
+	 * Average bytes allocated by the current thread per lookup, after a warm up round.
+	 *
+	 * @param round Does lookupsPerRound lookups, returning a count so the work can't be dropped
+	 * @param lookupsPerRound
+	 * @return
+	 */
+	static double bytesPerLookup(IntSupplier round, int lookupsPerRound) {
+		assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+				"Thread allocation counters are not available on this JVM");
+
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled(),
+				"Thread allocation counters are not enabled");
+
+		long threadId = Thread.currentThread().getId();
+		int sink = 0;
+
+		for (int i = 0; i < 100; i++) {	// warm up:  fill the caches and let the JIT settle
+			sink += round.getAsInt();
+		}
+
+		long before = threads.getThreadAllocatedBytes(threadId);
+		for (int i = 0; i < ROUNDS / lookupsPerRound + 1; i++) {
+			sink += round.getAsInt();
+		}
+		long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+		assertTrue(sink > 0, "Nothing was found, so the scenarios are not being exercised");
+		return (double) allocated / ((ROUNDS / lookupsPerRound + 1) * (double) lookupsPerRound);
+	}
+}
@@ -0,0 +1,126 @@
+package jextension;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.junit.jupiter.api.parallel.Resources;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.platform.testkit.engine.EngineTestKit;
+
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+
+/**
+ * Runs the characterization test classes w/ CheckExt added to every test (through extension
+ * autodetection, see META-INF/services), which checks that the cached findAnnotationForExtension
+ * finds the same annotation as the fully reflective findAnnotationForExtensionUncached, and that
+ * a second lookup is a cache hit.
+ *
+ * The characterization tests' own results don't matter here (some are expected to fail).
+ */
+// The extensions set real (global) System properties
+@ResourceLock(Resources.SYSTEM_PROPERTIES)
+public class AnnotationCacheConsistencyTest {
+
+	static Stream<Arguments> scenarios() {
+		return Stream.of(
+				Arguments.of(NestedTest.class, SimpleAnn.class),
+				Arguments.of(SuperclassTest.class, SimpleAnn.class),
+				Arguments.of(ComposedFromSimpleAnnTest.class, SimpleAnn.class),
+				Arguments.of(ComposedFromSimpleAnnSubclassTest.class, SimpleAnn.class),
+				Arguments.of(ComposedFromSimpleAnnInheritedSubclassTest.class, SimpleAnnInherited.class));
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("scenarios")
+	public void cachedLookupShouldMatchReflectiveSearch(Class<?> testClass, Class<? extends Annotation> annotationType) {
+		EngineTestKit.engine("junit-jupiter")
+				.configurationParameter("junit.jupiter.extensions.autodetection.enabled", "true")
+				.configurationParameter(CheckExt.ANNOTATION_PARAMETER, annotationType.getName())
+				.configurationParameter(AppliedProperties.OVERLAY_PARAMETER, "false")
+				.configurationParameter("junit.jupiter.execution.parallel.enabled", "false")
+				.selectors(selectClass(testClass))
+				.execute();
+
+		// The class and each of its @Nested classes, that have tests
+		Set<Class<?>> classes = Stream.concat(Stream.of(testClass), Arrays.stream(testClass.getDeclaredClasses())
+				.filter(c -> c.isAnnotationPresent(Nested.class)))
+				.filter(c -> Arrays.stream(c.getDeclaredMethods()).anyMatch(m -> m.isAnnotationPresent(Test.class)))
+				.collect(Collectors.toSet());
+
+		List<CheckExt.Check> checks = CheckExt.CHECKS.stream()
+				.filter(c -> classes.contains(c.testClass) && c.annotationType == annotationType)
+				.collect(Collectors.toList());
+
+		for (Class<?> clazz : classes) {
+			assertTrue(checks.stream().anyMatch(c -> c.testClass == clazz), "No tests checked in " + clazz.getName());
+		}
+
+		assertEquals(List.of(), checks.stream().map(c -> c.problem).filter(p -> p != null).collect(Collectors.toList()));
+	}
+
+	/** Compares the cached and reflective lookups before each test */
+	public static class CheckExt implements BeforeEachCallback {
+
+		/** JUnit configuration parameter w/ the name of the annotation type to look up */
+		static final String ANNOTATION_PARAMETER = "jextension.test.cacheCheck.annotation";
+
+		static final Queue<Check> CHECKS = new ConcurrentLinkedQueue<>();
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public void beforeEach(ExtensionContext context) throws ClassNotFoundException {
+			Optional<String> typeName = context.getConfigurationParameter(ANNOTATION_PARAMETER);
+
+			if (typeName.isPresent()) {
+				Class<? extends Annotation> annotationType = (Class<? extends Annotation>) Class.forName(typeName.get());
+				CHECKS.add(new Check(context.getRequiredTestClass(), annotationType, problem(context, annotationType)));
+			}
+		}
+
+		private static String problem(ExtensionContext context, Class<? extends Annotation> annotationType) {
+			Optional<? extends Annotation> uncached = ExtensionUtil.findAnnotationForExtensionUncached(context, annotationType);
+			Optional<? extends Annotation> first = ExtensionUtil.findAnnotationForExtension(context, annotationType);
+			Optional<? extends Annotation> second = ExtensionUtil.findAnnotationForExtension(context, annotationType);
+
+			if (! uncached.isPresent()) {
+				return context.getUniqueId() + ":  not found";
+			} else if (! uncached.equals(first)) {
+				return context.getUniqueId() + ":  cached " + first + ", reflective " + uncached;
+			} else if (first != second) {
+				return context.getUniqueId() + ":  second lookup was not a cache hit";
+			}
+
+			return null;
+		}
+
+		/** The result of checking one test */
+		static final class Check {
+			final Class<?> testClass;
+			final Class<? extends Annotation> annotationType;
+
+			/** null if the lookups agreed */
+			final String problem;
+
+			Check(Class<?> testClass, Class<? extends Annotation> annotationType, String problem) {
+				this.testClass = testClass;
+				this.annotationType = annotationType;
+				this.problem = problem;
+			}
+		}
+	}
+}
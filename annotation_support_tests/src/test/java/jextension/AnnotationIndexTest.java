@@ -0,0 +1,125 @@
+package jextension;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Retention;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The annotation-index-processor runs on these test sources, so every test class here should be
+ * in the compile-time index, and the index should agree w/ the reflective search.
+ */
+public class AnnotationIndexTest {
+
+	static final List<Class<?>> SCENARIOS = List.of(
+			BasicTest.class,
+			SuperclassTest.class, SuperclassTest.Nested1.class,
+			InheritedSuperclassTest.class, InheritedSuperclassTest.Nested1.class,
+			NestedTest.class, NestedTest.Nested1.class,
+			ComposedFromSimpleAnnTest.class, ComposedFromSimpleAnnTest.Nested1.class,
+			ComposedFromSimpleAnnSubclassTest.class, ComposedFromSimpleAnnSubclassTest.Nested1.class,
+			ComposedFromSimpleAnnInheritedSubclassTest.class, ComposedFromSimpleAnnInheritedSubclassTest.Nested1.class,
+			ExtensionUtilTest.class, ExtensionUtilTest.Nested1.class, ExtensionUtilTest.Nested2.class,
+			AnnotationIndexTest.class);
+
+	static final List<Class<? extends Annotation>> REGISTERING_TYPES = List.of(
+			SimpleAnn.class, SimpleAnnInherited.class, ConfigAnn.class,
+			ComposedFromSimpleAnn.class, ComposedFromSimpleAnnInherited.class, ExtendWith.class);
+
+	@Test
+	public void indexShouldAgreeWithReflectionForEveryScenarioClass() {
+		for (Class<?> scenario : SCENARIOS) {
+			for (Class<? extends Annotation> annType : REGISTERING_TYPES) {
+				assertTrue(AnnotationIndex.covers(scenario, annType), scenario + " is not indexed");
+
+				assertEquals(ExtensionUtil.searchAnnotation(scenario, annType),
+						ExtensionUtil.findAnnotation(scenario, annType),
+						"Index disagrees w/ reflection for " + annType.getSimpleName() + " on " + scenario);
+			}
+		}
+	}
+
+	@Test
+	public void indexShouldAgreeWithReflectionForEveryScenarioMethod() {
+		for (Class<?> scenario : SCENARIOS) {
+			for (Method method : scenario.getDeclaredMethods()) {
+				for (Class<? extends Annotation> annType : REGISTERING_TYPES) {
+					if (AnnotationIndex.covers(method, annType)) {
+						assertEquals(ExtensionUtil.findAnnotationAssumeInheritence(method, annType).isPresent(),
+								AnnotationIndex.isPresent(method, annType),
+								"Index disagrees w/ reflection for " + annType.getSimpleName() + " on " + method);
+					}
+				}
+			}
+		}
+	}
+
+	@Test	// The method in ExtensionUtilTest w/ its own @ConfigAnn
+	public void indexShouldRecordMethodLevelAnnotations() throws NoSuchMethodException {
+		Method method = ExtensionUtilTest.class.getMethod("methodLevelAnnotationShouldSetPhaserToEntertain",
+				ExtensionContext.class);
+
+		assertTrue(AnnotationIndex.covers(method, ConfigAnn.class));
+		assertTrue(AnnotationIndex.isPresent(method, ConfigAnn.class));
+	}
+
+	@Test	// Its superclass and annotation types, from the main classes, are checked by CRC-32
+	public void entryShouldBeCurrentForTheLoadedClasses() {
+		AnnotationIndex.ClassData data = AnnotationIndex.dataOf(SuperclassTest.class);
+
+		assertTrue(data.checksums.containsKey(SimpleAnn.class.getName()));
+		assertTrue(data.compiledWith.contains(SuperclassTestBase.class.getName()));
+		assertTrue(AnnotationIndex.isCurrent(SuperclassTest.class, data));
+	}
+
+	@Test	// E.g. SimpleAnn (in another jar) gained a meta-annotation after the index was written
+	public void changedClasspathTypeShouldNotBeTrusted() {
+		AnnotationIndex.ClassData data = AnnotationIndex.dataOf(SuperclassTest.class);
+		Map<String, Long> checksums = new HashMap<>(data.checksums);
+		checksums.put(SimpleAnn.class.getName(), checksums.get(SimpleAnn.class.getName()) ^ 1);
+
+		assertFalse(AnnotationIndex.isCurrent(SuperclassTest.class, new AnnotationIndex.ClassData(
+				data.root, data.sources, data.methods, data.compiledWith, checksums)));
+	}
+
+	@Test	// E.g. an older copy of the class or its superclass earlier on the classpath
+	public void classesFromElsewhereShouldNotBeTrusted() {
+		AnnotationIndex.ClassData data = AnnotationIndex.dataOf(SuperclassTest.class);
+
+		assertFalse(AnnotationIndex.isCurrent(SuperclassTest.class, new AnnotationIndex.ClassData(
+				"file:/elsewhere/", data.sources, data.methods, data.compiledWith, data.checksums)));
+		assertFalse(AnnotationIndex.isCurrent(SuperclassTest.class, new AnnotationIndex.ClassData(
+				data.root, data.sources, data.methods, List.of(SimpleAnn.class.getName()), data.checksums)));
+	}
+
+	@Test	// E.g. the superclass has since been removed
+	public void missingTypeShouldNotBeTrusted() {
+		AnnotationIndex.ClassData data = AnnotationIndex.dataOf(SuperclassTest.class);
+
+		assertFalse(AnnotationIndex.isCurrent(SuperclassTest.class, new AnnotationIndex.ClassData(
+				data.root, data.sources, data.methods, List.of("jextension.NoSuchClass"), data.checksums)));
+		assertFalse(AnnotationIndex.isCurrent(SuperclassTest.class, new AnnotationIndex.ClassData(
+				data.root, data.sources, data.methods, data.compiledWith, Map.of("jextension.NoSuchClass", 0L))));
+	}
+
+	@Test
+	public void indexRootShouldMatchCodeSourceLocation() throws Exception {
+		assertEquals("file:/a/b.jar", AnnotationIndex.rootOf(new URL("jar:file:/a/b.jar!/" + AnnotationIndex.INDEX_RESOURCE)));
+		assertEquals("file:/a/classes/", AnnotationIndex.rootOf(new URL("file:/a/classes/" + AnnotationIndex.INDEX_RESOURCE)));
+	}
+
+	@Test	// Non-registering annotations are not indexed, so they use the reflective search
+	public void otherAnnotationTypesShouldNotBeCovered() {
+		assertFalse(AnnotationIndex.covers(BasicTest.class, Retention.class));
+		assertFalse(AnnotationIndex.covers(String.class, SimpleAnn.class));
+	}
+}
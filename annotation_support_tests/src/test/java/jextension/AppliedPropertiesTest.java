@@ -0,0 +1,47 @@
+package jextension;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.junit.jupiter.api.parallel.Resources;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sets real (global) System properties, so can't run alongside other tests that do
+@ResourceLock(Resources.SYSTEM_PROPERTIES)
+public class AppliedPropertiesTest {
+
+	@AfterEach
+	public void clear() {
+		System.clearProperty("jext.prior");
+		System.clearProperty("jext.new");
+	}
+
+	@Test		// Replaced values come back, and new keys go away
+	public void restoreShouldPutBackExactlyWhatWasThere() {
+		System.setProperty("jext.prior", "before");
+
+		AppliedProperties applied = AppliedProperties.apply(Map.of("jext.prior", "during", "jext.new", "during"));
+
+		assertEquals("during", System.getProperty("jext.prior"));
+		assertEquals("during", System.getProperty("jext.new"));
+		assertEquals(Set.of("jext.prior", "jext.new"), applied.keys());
+
+		applied.restore();
+
+		assertEquals("before", System.getProperty("jext.prior"));
+		assertNull(System.getProperty("jext.new"));
+	}
+
+	@Test		// Only the applied keys are touched
+	public void applyShouldLeaveOtherPropertiesAlone() {
+		String javaVersion = System.getProperty("java.version");
+
+		AppliedProperties.apply(Map.of("jext.new", "during")).restore();
+
+		assertEquals(javaVersion, System.getProperty("java.version"));
+	}
+}
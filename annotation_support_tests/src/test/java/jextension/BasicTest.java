@@ -35,4 +35,11 @@ public class BasicTest {
 		assertTrue(ExtensionUtil.findAnnotationForExtension(
 				context, SimpleAnn.class).isPresent());
 	}
+
+	@Test		// Quick summary check agrees w/ the full lookup, for both a hit and a miss
+	public void mayHaveAnnotationShouldOnlyRuleOutMissingAnnotations(ExtensionContext context) {
+		assertTrue(ExtensionUtil.mayHaveAnnotation(context.getRequiredTestClass(), SimpleAnn.class));
+		assertFalse(ExtensionUtil.mayHaveAnnotation(context.getRequiredTestClass(), ConfigAnn.class));
+		assertFalse(ExtensionUtil.findAnnotation(context.getRequiredTestClass(), ConfigAnn.class).isPresent());
+	}
 }
\ No newline at end of file
@@ -0,0 +1,147 @@
+package jextension;
+
+import jextension.misc.ExtensionContextParamResolver;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.junit.jupiter.api.parallel.Resources;
+import org.junit.platform.testkit.engine.EngineTestKit;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.TimeUnit;
+
+import static jextension.ExtensionCallback.AFTER_EACH;
+import static jextension.ExtensionCallback.BEFORE_EACH;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+
+/**
+ * Runs the Scenario classes w/ timing enabled.  Their last test checks what has been recorded
+ * so far.  The Scenario classes are static nested classes, so they are not run by the build
+ * on their own.
+ */
+// The extensions set real (global) System properties
+@ResourceLock(Resources.SYSTEM_PROPERTIES)
+public class CallbackTimingsTest {
+
+	@Test		// @ConfigAnn is composed, the SimpleExt field is programmatic
+	public void composedAndProgrammaticRegistrationsShouldBeTimed() {
+		run(Scenario.class, 3);
+	}
+
+	@Test
+	public void declarativeRegistrationShouldBeTimed() {
+		run(DeclarativeScenario.class, 2);
+	}
+
+	@Test		// Each run's own parameter counts, even while another run is recording
+	@ExtendWith(ExtensionContextParamResolver.class)
+	public void enabledShouldBeRememberedForEachRun(ExtensionContext context) {
+		assertFalse(CallbackTimings.isEnabled(context));
+		run(Scenario.class, 3);
+		assertFalse(CallbackTimings.isEnabled(context));
+	}
+
+	@Test		// Nothing is created in the root Store when timing is off
+	public void disabledTimingShouldNotRecord() {
+		run(DisabledScenario.class, 1, false);
+	}
+
+	@Test		// An extension instance recorded isn't kept reachable until the end of the run
+	@ExtendWith(ExtensionContextParamResolver.class)
+	public void recordedExtensionShouldBeCollectable(ExtensionContext context) throws InterruptedException {
+		CallbackTimings timings = new CallbackTimings(true, System.out);
+		Object extension = new Object();
+		WeakReference<Object> ref = new WeakReference<>(extension);
+
+		timings.add(context, extension, BEFORE_EACH, 1000);
+		extension = null;
+
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (ref.get() != null && System.nanoTime() < deadline) {
+			System.gc();
+			Thread.sleep(10);
+		}
+
+		assertNull(ref.get(), "The recorded extension was never collected");
+		assertEquals(1, timings.histogram(Object.class, RegistrationSource.UNKNOWN, BEFORE_EACH).count());
+	}
+
+	private static void run(Class<?> scenario, int tests) {
+		run(scenario, tests, true);
+	}
+
+	private static void run(Class<?> scenario, int tests, boolean enabled) {
+		EngineTestKit.engine("junit-jupiter")
+				.configurationParameter(CallbackTimings.ENABLED_PARAMETER, Boolean.toString(enabled))
+				.configurationParameter(AppliedProperties.OVERLAY_PARAMETER, "false")
+				.configurationParameter("junit.jupiter.execution.parallel.enabled", "false")
+				.selectors(selectClass(scenario))
+				.execute()
+				.testEvents()
+				.assertStatistics(stats -> stats.started(tests).succeeded(tests));
+	}
+
+	@ExtendWith(ExtensionContextParamResolver.class)
+	@TestMethodOrder(MethodOrderer.MethodName.class)
+	@ConfigAnn(filepath = "/MyFile.props")
+	static class Scenario {
+
+		@RegisterExtension
+		static SimpleExt programmatic = new SimpleExt();
+
+		@Test
+		void a_first() {
+		}
+
+		@Test
+		void b_second() {
+		}
+
+		@Test		// beforeEach has run for all 3 tests, afterEach for the first 2
+		void c_timingsShouldBeRecorded(ExtensionContext context) {
+			assertTrue(CallbackTimings.isEnabled(context));
+			CallbackTimings timings = CallbackTimings.of(context);
+
+			assertEquals(3, timings.histogram(ConfigExt.class, RegistrationSource.COMPOSED, BEFORE_EACH).count());
+			assertEquals(2, timings.histogram(ConfigExt.class, RegistrationSource.COMPOSED, AFTER_EACH).count());
+			assertEquals(3, timings.histogram(SimpleExt.class, RegistrationSource.PROGRAMMATIC, BEFORE_EACH).count());
+			assertNull(timings.histogram(SimpleExt.class, RegistrationSource.DECLARATIVE, BEFORE_EACH));
+		}
+	}
+
+	@ExtendWith(ExtensionContextParamResolver.class)
+	@ExtendWith(SimpleExt.class)
+	@TestMethodOrder(MethodOrderer.MethodName.class)
+	static class DeclarativeScenario {
+
+		@Test
+		void a_first() {
+		}
+
+		@Test
+		void b_timingsShouldBeRecorded(ExtensionContext context) {
+			LatencyHistogram histogram = CallbackTimings.of(context)
+					.histogram(SimpleExt.class, RegistrationSource.DECLARATIVE, BEFORE_EACH);
+
+			assertEquals(2, histogram.count());
+			assertTrue(histogram.max() > 0);
+		}
+	}
+
+	@ExtendWith(ExtensionContextParamResolver.class)
+	@ConfigAnn(filepath = "/MyFile.props")
+	static class DisabledScenario {
+
+		@Test		// ConfigExt's beforeEach has run
+		void timingsShouldNotBeCreated(ExtensionContext context) {
+			assertFalse(CallbackTimings.isEnabled(context));
+			assertNull(context.getRoot().getStore(ExtensionContext.Namespace.create(CallbackTimings.class))
+					.get(CallbackTimings.class));
+		}
+	}
+}
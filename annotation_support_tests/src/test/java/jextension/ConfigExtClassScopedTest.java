@@ -0,0 +1,88 @@
+package jextension;
+
+import jextension.ConfigScenarios.ScenarioTest;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class-scoped mode:  The class configuration is applied once, before the class's own
+ * beforeAll callbacks, and reused by each of its tests.
+ */
+public class ConfigExtClassScopedTest {
+
+	@ScenarioTest
+	public void classScopedModeShouldApplyOncePerClassAndStillAllowOverrides() {
+		ConfigScenarios.run(Scenario.class, 5, Map.of(ConfigExt.CLASS_SCOPED_PARAMETER, "true"));
+	}
+
+	@ScenarioTest		// W/o the parameter, nothing is applied before the tests
+	public void perTestModeShouldNotApplyInBeforeAll() {
+		ConfigScenarios.run(PerTestScenario.class, 1, Map.of());
+	}
+
+	@ConfigAnn(filepath = "/MyFile.props")
+	static class Scenario {
+
+		@BeforeAll		// Runs after the extension's beforeAll, so the class config is already applied
+		static void classConfigShouldBeAppliedBeforeAll() {
+			assertEquals("stun", System.getProperty("phaser"));
+		}
+
+		@Test
+		void classLevelConfigShouldBeSeen() {
+			assertEquals("stun", System.getProperty("phaser"));
+		}
+
+		@ConfigAnn(filepath = "/other.props")
+		@Test
+		void methodOverrideShouldBeApplied() {
+			assertEquals("entertain", System.getProperty("phaser"));
+		}
+
+		@Test		// Whatever order the tests run in, the class config is back after the override
+		void classLevelConfigShouldBeSeenAgain() {
+			assertEquals("stun", System.getProperty("phaser"));
+		}
+
+		@ConfigAnn(filepath = "/other.props")
+		@Nested
+		class NestedOverride {
+			@BeforeAll
+			static void nestedConfigShouldBeAppliedBeforeAll() {
+				assertEquals("entertain", System.getProperty("phaser"));
+			}
+
+			@Test
+			void nestedConfigShouldBeSeen() {
+				assertEquals("entertain", System.getProperty("phaser"));
+			}
+		}
+
+		@Nested
+		class NestedNoOverride {
+			@Test
+			void classLevelConfigShouldBeSeen() {
+				assertEquals("stun", System.getProperty("phaser"));
+			}
+		}
+	}
+
+	@ConfigAnn(filepath = "/MyFile.props")
+	static class PerTestScenario {
+
+		@BeforeAll
+		static void nothingShouldBeAppliedYet() {
+			assertNull(System.getProperty("phaser"));
+		}
+
+		@Test
+		void classLevelConfigShouldBeSeen() {
+			assertEquals("stun", System.getProperty("phaser"));
+		}
+	}
+}
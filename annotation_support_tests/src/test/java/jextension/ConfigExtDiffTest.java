@@ -0,0 +1,72 @@
+package jextension;
+
+import jextension.ConfigScenarios.ScenarioTest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Diff mode:  Moving from one test's configuration to the next only sets and removes the keys
+ * that differ, and the original values are back once the outermost class is done.
+ */
+public class ConfigExtDiffTest {
+
+	@ScenarioTest
+	public void diffModeShouldMoveBetweenConfigurations() {
+		ConfigScenarios.run(Scenario.class, 5, Map.of(ConfigExt.DIFF_PARAMETER, "true"));
+	}
+
+	@ScenarioTest		// Keys that only some layers set must be removed when moving away from them
+	public void diffModeShouldWorkLayered() {
+		ConfigScenarios.run(Scenario.class, 5,
+				Map.of(ConfigExt.DIFF_PARAMETER, "true", ConfigExt.LAYERED_PARAMETER, "true"));
+	}
+
+	@ConfigAnn(filepath = "/MyFile.props")
+	@TestMethodOrder(MethodOrderer.MethodName.class)
+	static class Scenario {
+
+		@Test
+		void a_classLevelConfigShouldBeSeen() {
+			assertEquals("stun", System.getProperty("phaser"));
+		}
+
+		@ConfigAnn(filepath = "/other.props")
+		@Test
+		void b_methodOverrideShouldBeApplied() {
+			assertEquals("entertain", System.getProperty("phaser"));
+		}
+
+		@ConfigAnn(filepath = "/layers/nested.props")
+		@Test
+		void c_methodOnlyKeyShouldBeApplied() {
+			assertEquals("5", System.getProperty("warp"));
+		}
+
+		@Test		// After the override and the extra key, back to just the class config
+		void d_classLevelConfigShouldBeSeenAgain() {
+			assertEquals("stun", System.getProperty("phaser"));
+			assertNull(System.getProperty("warp"));
+		}
+
+		@ConfigAnn(filepath = "/other.props")
+		@Nested
+		class NestedOverride {
+			@Test
+			void nestedConfigShouldBeSeen() {
+				assertEquals("entertain", System.getProperty("phaser"));
+			}
+
+			@AfterAll		// Only the outermost class restores
+			static void nestedConfigShouldStillBeAppliedAfterAll() {
+				assertEquals("entertain", System.getProperty("phaser"));
+			}
+		}
+	}
+}
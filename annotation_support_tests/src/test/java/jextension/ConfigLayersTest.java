@@ -0,0 +1,91 @@
+package jextension;
+
+import jextension.ConfigScenarios.ScenarioTest;
+import jextension.misc.ExtensionContextParamResolver;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Layered mode:  Each class, superclass, enclosing class and method layer is merged on top of
+ * the ones underneath it.
+ */
+public class ConfigLayersTest {
+
+	@ScenarioTest
+	public void layeredModeShouldMergeEveryLayer() {
+		ConfigScenarios.run(Scenario.class, 6, Map.of(ConfigExt.LAYERED_PARAMETER, "true"));
+	}
+
+	@ScenarioTest		// Class-scoped mode applies the merged class layers once per class
+	public void layeredModeShouldWorkClassScoped() {
+		ConfigScenarios.run(Scenario.class, 6,
+				Map.of(ConfigExt.LAYERED_PARAMETER, "true", ConfigExt.CLASS_SCOPED_PARAMETER, "true"));
+	}
+
+	@ConfigAnn(filepath = "/layers/super.props")
+	static class ScenarioBase {
+	}
+
+	@ExtendWith(ExtensionContextParamResolver.class)
+	@ConfigAnn(filepath = "/layers/base.props")
+	static class Scenario extends ScenarioBase {
+
+		@Test		// The class's own file wins over its superclass's for 'shields'
+		void classAndSuperclassLayersShouldMerge() {
+			assertEquals("stun", System.getProperty("phaser"));
+			assertEquals("up", System.getProperty("shields"));
+			assertEquals("on", System.getProperty("cloak"));
+			assertEquals("1", System.getProperty("warp"));
+		}
+
+		@ConfigAnn(filepath = "/other.props")
+		@Test		// Only 'phaser' is overridden
+		void methodLayerShouldBeOnTop() {
+			assertEquals("entertain", System.getProperty("phaser"));
+			assertEquals("up", System.getProperty("shields"));
+			assertEquals("on", System.getProperty("cloak"));
+		}
+
+		@ConfigAnn(filepath = "/layers/nested.props")
+		@Nested
+		class NestedLayer {
+			@Test
+			void enclosingLayersShouldBeUnderneath() {
+				assertEquals("5", System.getProperty("warp"));
+				assertEquals("stun", System.getProperty("phaser"));
+				assertEquals("on", System.getProperty("cloak"));
+			}
+
+			@ConfigAnn(filepath = "/other.props")
+			@Test
+			void methodLayerShouldBeOnTopOfNestedLayers() {
+				assertEquals("entertain", System.getProperty("phaser"));
+				assertEquals("5", System.getProperty("warp"));
+			}
+		}
+
+		@Nested
+		class NoLayerOfItsOwn {
+			@Test
+			void enclosingLayersShouldBeSeen() {
+				assertEquals("1", System.getProperty("warp"));
+				assertEquals("on", System.getProperty("cloak"));
+			}
+
+			@Test		// Nothing to add, so the merged view cached in the enclosing class's context is reused
+			void enclosingMergedViewShouldBeReused(ExtensionContext context) throws IOException {
+				ExtensionContext enclosingClassContext = context.getParent().flatMap(ExtensionContext::getParent).get();
+
+				assertSame(ConfigLayers.resolve(enclosingClassContext, ConfigExt.class),
+						ConfigLayers.resolve(context, ConfigExt.class));
+			}
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package jextension;
+
+import jextension.ConfigScenarios.ScenarioTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConfigPrefetcherTest {
+
+	@Test		// Class, method and @Nested class annotations
+	public void classTreePathsShouldBeFound() {
+		assertEquals(Set.of("/MyFile.props", "/other.props"), ConfigPrefetcher.referencedPaths(ExtensionUtilTest.class));
+	}
+
+	@Test		// Superclass layers, and the layers of nested classes
+	public void superclassAndNestedPathsShouldBeFound() {
+		assertEquals(Set.of("/layers/base.props", "/layers/super.props", "/other.props", "/layers/nested.props"),
+				ConfigPrefetcher.referencedPaths(ConfigLayersTest.Scenario.class));
+	}
+
+	@Test		// Starting from a nested class, the enclosing classes' files are still needed
+	public void enclosingClassPathsShouldBeFound() {
+		assertEquals(Set.of("/layers/base.props", "/layers/super.props", "/layers/nested.props", "/other.props"),
+				ConfigPrefetcher.referencedPaths(ConfigLayersTest.Scenario.NestedLayer.class));
+	}
+
+	@Test
+	public void classWithoutAnnotationsShouldHaveNoPaths() {
+		assertEquals(Set.of(), ConfigPrefetcher.referencedPaths(ConfigPrefetcherTest.class));
+	}
+
+	@ScenarioTest		// beforeEach gets the file the prefetch loaded (or waits for it), rather than loading it again
+	public void configExtShouldUsePrefetchedFile() {
+		PropertiesCache.shared().clear();
+		int submitted = ConfigPrefetcher.submittedCount();
+		int loads = PropertiesCache.shared().loadCount();
+
+		ConfigScenarios.run(Scenario.class, 1, Map.of(ConfigExt.PREFETCH_PARAMETER, "true"));
+
+		assertEquals(1, ConfigPrefetcher.submittedCount() - submitted);
+		assertEquals(1, PropertiesCache.shared().loadCount() - loads);
+	}
+
+	@ScenarioTest		// W/o the parameter, beforeEach loads the file itself
+	public void nothingShouldBeSubmittedByDefault() {
+		PropertiesCache.shared().clear();
+		int submitted = ConfigPrefetcher.submittedCount();
+		int loads = PropertiesCache.shared().loadCount();
+
+		ConfigScenarios.run(Scenario.class, 1, Map.of());
+
+		assertEquals(0, ConfigPrefetcher.submittedCount() - submitted);
+		assertEquals(1, PropertiesCache.shared().loadCount() - loads);
+	}
+
+	@ConfigAnn(filepath = "/MyFile.props")
+	static class Scenario {
+
+		@Test
+		void configShouldBeApplied() {
+			assertEquals("stun", System.getProperty("phaser"));
+		}
+	}
+}
@@ -0,0 +1,82 @@
+package jextension;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.junit.jupiter.api.parallel.Resources;
+import org.junit.platform.engine.DiscoverySelector;
+import org.junit.platform.engine.discovery.DiscoverySelectors;
+import org.junit.platform.testkit.engine.EngineTestKit;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs Scenario classes w/ ConfigExt in a nested engine, by default w/o overlay, so the
+ * configuration is applied to the real (global) System properties.  Scenario classes are static
+ * nested classes, so they are not run by the build on their own.
+ */
+final class ConfigScenarios {
+
+	/**
+	 * A test that runs a Scenario:  It holds the System properties lock while the Scenario sets them.
+	 */
+	@Target(ElementType.METHOD)
+	@Retention(RetentionPolicy.RUNTIME)
+	@Test
+	@ResourceLock(Resources.SYSTEM_PROPERTIES)
+	@interface ScenarioTest {
+	}
+
+	private ConfigScenarios() {}
+
+	/**
+	 * Runs the scenario, checking that all its tests pass and that the System properties are
+	 * restored afterwards.
+	 *
+	 * @param scenario The Scenario class
+	 * @param tests The number of tests it has
+	 * @param parameters ConfigExt configuration parameters for the mode under test
+	 */
+	static void run(Class<?> scenario, int tests, Map<String, String> parameters) {
+		execute(tests, Map.of(AppliedProperties.PARALLEL_PARAMETER, "false"), parameters, scenario);
+	}
+
+	/**
+	 * As run, but w/ the scenarios' classes and tests all running concurrently, as far as their
+	 * locks allow.
+	 *
+	 * @param tests The number of tests they have
+	 * @param parameters Configuration parameters for the mode under test (which may turn overlay mode on)
+	 * @param scenarios The Scenario classes
+	 */
+	static void runInParallel(int tests, Map<String, String> parameters, Class<?>... scenarios) {
+		execute(tests, Map.of(AppliedProperties.PARALLEL_PARAMETER, "true",
+				"junit.jupiter.execution.parallel.mode.default", "concurrent",
+				"junit.jupiter.execution.parallel.mode.classes.default", "concurrent",
+				"junit.jupiter.execution.parallel.config.strategy", "fixed",
+				"junit.jupiter.execution.parallel.config.fixed.parallelism", "4"), parameters, scenarios);
+	}
+
+	private static void execute(int tests, Map<String, String> execution, Map<String, String> parameters, Class<?>... scenarios) {
+		Map<Object, Object> before = new HashMap<>(System.getProperties());
+
+		// Later parameters win
+		EngineTestKit.engine("junit-jupiter")
+				.configurationParameter(AppliedProperties.OVERLAY_PARAMETER, "false")
+				.configurationParameters(execution)
+				.configurationParameters(parameters)
+				.selectors(Arrays.stream(scenarios).map(DiscoverySelectors::selectClass).toArray(DiscoverySelector[]::new))
+				.execute()
+				.testEvents()
+				.assertStatistics(stats -> stats.started(tests).succeeded(tests));
+
+		assertEquals(before, new HashMap<>(System.getProperties()), "Configuration was not restored");
+	}
+}
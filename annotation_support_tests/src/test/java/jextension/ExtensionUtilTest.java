@@ -6,7 +6,17 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.extension.ExtensionContext;
 
+import java.lang.annotation.Annotation;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 /**
  * Uses the @ConfigAnn and ConfigExt (which uses ExtensionUtil) to test which annotation
@@ -17,6 +27,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 @ConfigAnn(filepath = "/MyFile.props")
 public class ExtensionUtilTest {
 
+	static final Set<Class<? extends Annotation>> TYPES = Set.of(ConfigAnn.class, SimpleAnn.class, ExtendWith.class);
+
 	@Test  // 'stun' value found in MyFile.props
 	public void classLevelAnnotationShouldSetPhaserToStun(ExtensionContext context) {
 		assertEquals("stun", System.getProperty("phaser"));
@@ -28,12 +40,51 @@ public class ExtensionUtilTest {
 		assertEquals("entertain", System.getProperty("phaser"));
 	}
 
+	@Test		// ConfigExt only sets the keys in the file, rather than replacing all System properties
+	public void otherSystemPropertiesShouldBeKept(ExtensionContext context) {
+		assertNotNull(System.getProperty("java.version"));
+	}
+
+	@Test		// One bulk lookup finds the same annotations as one lookup per type
+	public void bulkLookupShouldMatchSingleLookups(ExtensionContext context) {
+		Map<Class<? extends Annotation>, Annotation> found = ExtensionUtil.findAnnotationsForExtension(context, TYPES);
+
+		for (Class<? extends Annotation> type : TYPES) {
+			assertEquals(ExtensionUtil.findAnnotationForExtension(context, type), Optional.ofNullable(found.get(type)));
+		}
+
+		assertEquals("/MyFile.props", ((ConfigAnn) found.get(ConfigAnn.class)).filepath());
+		assertFalse(found.containsKey(SimpleAnn.class));
+	}
+
+	@ConfigAnn(filepath = "/other.props")
+	@Test		// Every occurrence, method first, and the first one is the one findAnnotationForExtension finds
+	public void streamShouldListAllAnnotationsInPrecedenceOrder(ExtensionContext context) {
+		assertEquals(List.of("/other.props", "/MyFile.props"), filepaths(context));
+		assertEquals(ExtensionUtil.findAnnotationForExtension(context, ConfigAnn.class),
+				ExtensionUtil.streamAnnotationsForExtension(context, ConfigAnn.class).findFirst());
+		assertEquals(0, ExtensionUtil.streamAnnotationsForExtension(context, SimpleAnn.class).count());
+	}
+
+	static List<String> filepaths(ExtensionContext context) {
+		return ExtensionUtil.streamAnnotationsForExtension(context, ConfigAnn.class)
+				.map(ConfigAnn::filepath).collect(Collectors.toList());
+	}
+
 	@Nested
 	class Nested1 {
 		@Test  // parent class's configuration should be used here
 		public void classLevelAnnotationShouldSetPhaserToStun(ExtensionContext context) {
 			assertEquals("stun", System.getProperty("phaser"));
 		}
+
+		@Test		// No annotation of its own, so the answer cached in the enclosing class's context is reused
+		public void lookupShouldReuseEnclosingClassContextResult(ExtensionContext context) {
+			ExtensionContext enclosingClassContext = context.getParent().flatMap(ExtensionContext::getParent).get();
+
+			assertSame(ExtensionUtil.findAnnotationForExtension(enclosingClassContext, ConfigAnn.class),
+					ExtensionUtil.findAnnotationForExtension(context, ConfigAnn.class));
+		}
 	}
 
 	@ConfigAnn(filepath = "/other.props")
@@ -49,5 +100,31 @@ public class ExtensionUtilTest {
 		public void classLevelAnnotationShouldSetPhaserToStun(ExtensionContext context) {
 			assertEquals("stun", System.getProperty("phaser"));
 		}
+
+		@Test		// Has its own annotation, so it doesn't use the enclosing class's answer
+		public void lookupShouldNotReuseEnclosingClassContextResult(ExtensionContext context) {
+			ExtensionContext enclosingClassContext = context.getParent().flatMap(ExtensionContext::getParent).get();
+
+			assertEquals("/other.props", ExtensionUtil.findAnnotationForExtension(context, ConfigAnn.class).get().filepath());
+			assertEquals("/MyFile.props", ExtensionUtil.findAnnotationForExtension(enclosingClassContext, ConfigAnn.class).get().filepath());
+		}
+
+		@ConfigAnn(filepath = "/MyFile.props")
+		@Test		// Bulk lookup also sees the method level override first
+		public void bulkLookupShouldFindMethodLevelAnnotationFirst(ExtensionContext context) {
+			Map<Class<? extends Annotation>, Annotation> found = ExtensionUtil.findAnnotationsForExtension(context, TYPES);
+
+			for (Class<? extends Annotation> type : TYPES) {
+				assertEquals(ExtensionUtil.findAnnotationForExtension(context, type), Optional.ofNullable(found.get(type)));
+			}
+
+			assertEquals("/MyFile.props", ((ConfigAnn) found.get(ConfigAnn.class)).filepath());
+		}
+
+		@ConfigAnn(filepath = "/MyFile.props")
+		@Test		// Method, then Nested2, then the enclosing class
+		public void streamShouldIncludeEnclosingClassAnnotations(ExtensionContext context) {
+			assertEquals(List.of("/MyFile.props", "/other.props", "/MyFile.props"), filepaths(context));
+		}
 	}
 }
\ No newline at end of file
@@ -0,0 +1,107 @@
+package jextension;
+
+import jextension.HierarchyWalker.Scope;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The walker should visit classes in the same order as the recursive JUnit search.
+ */
+public class HierarchyWalkerTest {
+
+	@Test		// Class, interfaces depth first in declaration order, then superclass.  IC is reachable twice.
+	public void hierarchyShouldBeWalkedInJUnitSearchOrder() {
+		assertEquals(List.of(Leaf.class, IA.class, IB.class, IC.class, Base.class, IC.class),
+				walk(Leaf.class, Scope.HIERARCHY, HierarchyWalker.UNLIMITED));
+	}
+
+	@Test
+	public void interfacesScopeShouldSkipSuperclasses() {
+		assertEquals(List.of(Leaf.class, IA.class, IB.class, IC.class),
+				walk(Leaf.class, Scope.INTERFACES, HierarchyWalker.UNLIMITED));
+	}
+
+	@Test		// Inner's hierarchy, then the enclosing class's
+	public void withEnclosingScopeShouldWalkEnclosingClassesLast() {
+		assertEquals(List.of(Inner.class, Base.class, IC.class, HierarchyWalkerTest.class),
+				walk(Inner.class, Scope.WITH_ENCLOSING, HierarchyWalker.UNLIMITED));
+
+		assertEquals(List.of(Inner.class, Base.class, IC.class),
+				walk(Inner.class, Scope.HIERARCHY, HierarchyWalker.UNLIMITED));
+	}
+
+	@Test
+	public void maxDepthShouldLimitTheWalkAndBeReported() {
+		try (HierarchyWalker walker = HierarchyWalker.walk(Leaf.class, Scope.HIERARCHY, 1)) {
+			List<Class<?>> visited = drain(walker);
+
+			assertEquals(List.of(Leaf.class, IA.class, IC.class, Base.class), visited);
+			assertEquals(4, walker.visited());
+			assertTrue(walker.isTruncated());
+		}
+
+		try (HierarchyWalker walker = HierarchyWalker.walk(Leaf.class, Scope.HIERARCHY, HierarchyWalker.UNLIMITED)) {
+			drain(walker);
+
+			assertEquals(6, walker.visited());
+			assertFalse(walker.isTruncated());
+		}
+	}
+
+	@Test		// Base's interfaces and superclass are not walked
+	public void prunedClassShouldNotBeExpanded() {
+		List<Class<?>> visited = new ArrayList<>();
+
+		try (HierarchyWalker walker = HierarchyWalker.walk(Leaf.class, Scope.HIERARCHY, HierarchyWalker.UNLIMITED)) {
+			for (Class<?> node = walker.next(); node != null; node = walker.next()) {
+				visited.add(node);
+				if (node == IA.class) {
+					walker.prune();
+				}
+			}
+		}
+
+		assertEquals(List.of(Leaf.class, IA.class, IC.class, Base.class, IC.class), visited);
+	}
+
+	@Test		// A walk started in the middle of another must not disturb it
+	public void nestedWalksShouldBeIndependent() {
+		List<Class<?>> outer = new ArrayList<>();
+
+		try (HierarchyWalker walker = HierarchyWalker.walk(Leaf.class, Scope.HIERARCHY, HierarchyWalker.UNLIMITED)) {
+			for (Class<?> node = walker.next(); node != null; node = walker.next()) {
+				outer.add(node);
+				assertEquals(List.of(Inner.class, Base.class, IC.class), walk(Inner.class, Scope.HIERARCHY, HierarchyWalker.UNLIMITED));
+			}
+		}
+
+		assertEquals(List.of(Leaf.class, IA.class, IB.class, IC.class, Base.class, IC.class), outer);
+	}
+
+	static List<Class<?>> walk(Class<?> clazz, Scope scope, int maxDepth) {
+		try (HierarchyWalker walker = HierarchyWalker.walk(clazz, scope, maxDepth)) {
+			return drain(walker);
+		}
+	}
+
+	static List<Class<?>> drain(HierarchyWalker walker) {
+		List<Class<?>> visited = new ArrayList<>();
+		for (Class<?> node = walker.next(); node != null; node = walker.next()) {
+			visited.add(node);
+		}
+		return visited;
+	}
+
+	interface IB { }
+	interface IA extends IB { }
+	interface IC { }
+
+	static class Base implements IC { }
+	static class Leaf extends Base implements IA, IC { }
+
+	class Inner extends Base { }
+}
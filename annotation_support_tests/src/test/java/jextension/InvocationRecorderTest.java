@@ -0,0 +1,92 @@
+package jextension;
+
+import jextension.misc.ExtensionContextParamResolver;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(ExtensionContextParamResolver.class)
+public class InvocationRecorderTest {
+
+	@Test
+	public void recordsShouldBeInOrder(ExtensionContext context) {
+		InvocationRecorder<String> recorder = new InvocationRecorder<>();
+
+		recorder.record(context, "one");
+		recorder.record(context, "two");
+
+		assertEquals(List.of("one", "two"), recorder.get(context));
+		assertEquals(List.of("one", "two"), recorder.current());
+	}
+
+	@Test		// A snapshot is not changed by later records, and can't be changed
+	public void snapshotShouldNotChange(ExtensionContext context) {
+		InvocationRecorder<String> recorder = new InvocationRecorder<>();
+		recorder.record(context, "one");
+
+		List<String> snapshot = recorder.get(context);
+		recorder.record(context, "two");
+
+		assertEquals(List.of("one"), snapshot);
+		assertThrows(UnsupportedOperationException.class, () -> snapshot.add("three"));
+	}
+
+	@Test		// Each test has its own records
+	public void recordsShouldBeKeptPerTest(ExtensionContext context) {
+		InvocationRecorder<String> recorder = new InvocationRecorder<>();
+		ExtensionContext classContext = context.getParent().get();
+
+		recorder.record(classContext, "class");
+		recorder.record(context, "test");
+
+		assertEquals(List.of("class"), recorder.get(classContext));
+		assertEquals(List.of("test"), recorder.get(context));
+	}
+
+	@Test
+	public void clearShouldForgetTheTestsRecords(ExtensionContext context) {
+		InvocationRecorder<String> recorder = new InvocationRecorder<>();
+		recorder.record(context, "one");
+
+		recorder.clear(context);
+
+		assertEquals(List.of(), recorder.get(context));
+		assertEquals(List.of(), recorder.current());
+	}
+
+	@Test		// No appends are lost when threads race
+	public void concurrentAppendsShouldAllBeKept(ExtensionContext context) throws InterruptedException {
+		InvocationRecorder<Integer> recorder = new InvocationRecorder<>();
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread> threads = new ArrayList<>();
+
+		for (int t = 0; t < 4; t++) {
+			Thread thread = new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+
+				for (int i = 0; i < 1000; i++) {
+					recorder.record(context, i);
+				}
+			});
+			thread.start();
+			threads.add(thread);
+		}
+
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertEquals(4000, recorder.get(context).size());
+	}
+}
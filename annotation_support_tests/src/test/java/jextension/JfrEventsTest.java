@@ -0,0 +1,118 @@
+package jextension;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.junit.jupiter.api.parallel.Resources;
+import org.junit.platform.testkit.engine.EngineTestKit;
+
+import java.io.IOException;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+
+/**
+ * Records the JFR events to a file and reads them back.  The Scenario class is a static nested
+ * class, so it is not run by the build on its own.
+ */
+// The extensions set real (global) System properties
+@ResourceLock(Resources.SYSTEM_PROPERTIES)
+public class JfrEventsTest {
+
+	@TempDir
+	Path dir;
+
+	@Test		// The marker is on an interface, so the search walks past the class
+	public void lookupShouldBeRecorded() throws IOException {
+		List<RecordedEvent> events = record("jextension.AnnotationLookup", () -> {
+			assertTrue(ExtensionUtil.findAnnotation(Marked.class, Marker.class).isPresent());
+			assertFalse(ExtensionUtil.findAnnotation(JfrEventsTest.class, Marker.class).isPresent());
+		});
+
+		RecordedEvent found = only(events, Marked.class.toString());
+		assertEquals(Marker.class.getName(), found.getClass("annotationType").getName());
+		assertTrue(found.getBoolean("found"));
+		assertTrue(found.getLong("nodesVisited") >= 2, "Visited " + found.getLong("nodesVisited"));
+
+		assertFalse(only(events, JfrEventsTest.class.toString()).getBoolean("found"));
+	}
+
+	@Test
+	public void callbacksShouldBeRecorded() throws IOException {
+		List<RecordedEvent> events = record("jextension.ExtensionCallback", () ->
+			EngineTestKit.engine("junit-jupiter")
+					.configurationParameter(ConfigExt.PREFETCH_PARAMETER, "false")
+					.configurationParameter(AppliedProperties.OVERLAY_PARAMETER, "false")
+					.configurationParameter("junit.jupiter.execution.parallel.enabled", "false")
+					.selectors(selectClass(Scenario.class))
+					.execute()
+					.testEvents()
+					.assertStatistics(stats -> stats.started(1).succeeded(1)));
+
+		List<RecordedEvent> config = events.stream()
+				.filter(e -> e.getClass("extension").getName().equals(ConfigExt.class.getName()))
+				.collect(Collectors.toList());
+
+		assertEquals(List.of("BEFORE_EACH", "AFTER_EACH"),
+				config.stream().map(e -> e.getString("callback")).collect(Collectors.toList()));
+
+		RecordedEvent before = config.get(0);
+		assertEquals("/jfr.props", before.getString("resourcePath"));
+		assertTrue(before.getLong("bytesLoaded") > 0, "Only test to use the file, so it is loaded by beforeEach");
+		assertTrue(before.getString("test").contains("test()"), before.getString("test"));
+		assertEquals("/jfr.props", config.get(1).getString("resourcePath"));
+	}
+
+	private List<RecordedEvent> record(String eventName, Runnable action) throws IOException {
+		Path file = dir.resolve("events.jfr");
+
+		try (Recording recording = new Recording()) {
+			recording.enable(eventName).withThreshold(Duration.ZERO);
+			recording.start();
+			action.run();
+			recording.stop();
+			recording.dump(file);
+		}
+
+		return RecordingFile.readAllEvents(file).stream()
+				.filter(e -> e.getEventType().getName().equals(eventName))
+				.collect(Collectors.toList());
+	}
+
+	private static RecordedEvent only(List<RecordedEvent> events, String element) {
+		List<RecordedEvent> matching = events.stream()
+				.filter(e -> element.equals(e.getString("element")))
+				.collect(Collectors.toList());
+
+		assertEquals(1, matching.size(), "Events for " + element);
+		return matching.get(0);
+	}
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Inherited
+	@interface Marker {}
+
+	@Marker
+	interface MarkedInterface {}
+
+	static class Marked implements MarkedInterface {}
+
+	@ConfigAnn(filepath = "/jfr.props")
+	static class Scenario {
+
+		@Test
+		void test() {
+			assertEquals("jfr value", System.getProperty("jfr.key"));
+		}
+	}
+}
@@ -0,0 +1,54 @@
+package jextension;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyHistogramTest {
+
+	@Test		// Each value's bucket must contain it, w/in the 12.5% relative error
+	public void bucketShouldContainItsValues() {
+		for (long value : new long[] { 0, 1, 7, 8, 15, 16, 17, 1000, 123_456_789, Long.MAX_VALUE }) {
+			long highest = LatencyHistogram.highestValueIn(LatencyHistogram.indexOf(value));
+
+			assertTrue(highest >= value, "Bucket too low for " + value);
+			assertTrue(highest - value <= value / 8, "Bucket too wide for " + value);
+		}
+	}
+
+	@Test
+	public void percentilesShouldBeWithinTheRelativeError() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 1; i <= 1000; i++) {
+			histogram.record(i * 1000L);
+		}
+
+		assertEquals(1000, histogram.count());
+		assertEquals(1_000_000, histogram.max());
+		assertEquals(500_000, histogram.percentile(0.5), 500_000 / 8.0);
+		assertEquals(990_000, histogram.percentile(0.99), 990_000 / 8.0);
+		assertEquals(1_000_000, histogram.percentile(1.0));
+	}
+
+	@Test		// Merging is the same as having recorded everything in one
+	public void mergeShouldCombineCountsAndMax() {
+		LatencyHistogram fast = new LatencyHistogram();
+		LatencyHistogram slow = new LatencyHistogram();
+		for (int i = 0; i < 99; i++) {
+			fast.record(100);
+		}
+		slow.record(1_000_000);
+
+		LatencyHistogram merged = new LatencyHistogram().merge(fast).merge(slow);
+
+		assertEquals(100, merged.count());
+		assertEquals(1_000_000, merged.max());
+		assertEquals(100, merged.percentile(0.5), 100 / 8.0);
+		assertEquals(1_000_000, merged.percentile(1.0));
+	}
+
+	@Test
+	public void emptyHistogramShouldReportZero() {
+		assertEquals(0, new LatencyHistogram().percentile(0.99));
+	}
+}
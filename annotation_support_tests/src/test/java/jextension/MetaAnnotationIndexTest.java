@@ -0,0 +1,51 @@
+package jextension;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.util.List;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The MetaAnnotationIndex should find the same meta-annotations as the recursive search,
+ * along with the path of composing annotations that leads to each one.
+ */
+public class MetaAnnotationIndexTest {
+
+	@Test		// SimpleAnn is directly declared on the composed annotation
+	public void composedAnnotationShouldIndexItsDirectMetaAnnotation() {
+		MetaAnnotationIndex.Entry entry = MetaAnnotationIndex.entry(ComposedFromSimpleAnn.class, SimpleAnn.class);
+
+		assertNotNull(entry);
+		assertEquals(SimpleAnn.class, entry.getAnnotation().annotationType());
+		assertEquals(List.of(ComposedFromSimpleAnn.class), entry.getPath());
+	}
+
+	@Test		// ExtendWith is one level further down, on SimpleAnnInherited
+	public void composedAnnotationShouldIndexNestedMetaAnnotations() {
+		MetaAnnotationIndex.Entry entry = MetaAnnotationIndex.entry(ComposedFromSimpleAnnInherited.class, ExtendWith.class);
+
+		assertNotNull(entry);
+		assertArrayEquals(new Class<?>[] { SimpleExt.class }, ((ExtendWith) entry.getAnnotation()).value());
+		assertEquals(List.of(ComposedFromSimpleAnnInherited.class, SimpleAnnInherited.class), entry.getPath());
+	}
+
+	@Test		// java.lang.annotation types are found, but never searched into (Retention is @Documented)
+	public void javaLangAnnotationTypesShouldBeFoundButNotSearched() {
+		assertNotNull(MetaAnnotationIndex.find(PlainAnn.class, Retention.class));
+		assertNull(MetaAnnotationIndex.find(PlainAnn.class, Documented.class));
+	}
+
+	@Test
+	public void annotationShouldNotBeIndexedAsItsOwnMetaAnnotation() {
+		assertNull(MetaAnnotationIndex.find(SimpleAnn.class, SimpleAnn.class));
+		assertNull(MetaAnnotationIndex.find(ComposedFromSimpleAnn.class, ConfigAnn.class));
+	}
+
+	@Retention(RUNTIME)
+	@interface PlainAnn { }
+}
@@ -40,6 +40,12 @@ public class NestedTest {
 					context, SimpleAnn.class).isPresent());
 		}
 
+		@Test		// The summary includes annotations found via the enclosing class
+		public void mayHaveAnnotationShouldSeeEnclosingClassAnnotation(ExtensionContext context) {
+			assertTrue(ExtensionUtil.mayHaveAnnotation(context.getRequiredTestClass(), SimpleAnn.class));
+			assertFalse(ExtensionUtil.mayHaveAnnotation(context.getRequiredTestClass(), ConfigAnn.class));
+		}
+
 		@Test		//junit-pioneer
 		public void findClosestEnclosingAnnotationShouldFindParentAnnotation(ExtensionContext context) {
 			assertTrue(PioneerAnnotationUtils.findClosestEnclosingAnnotation(context, SimpleAnn.class).isPresent());
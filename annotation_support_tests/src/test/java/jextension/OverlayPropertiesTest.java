@@ -0,0 +1,149 @@
+package jextension;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OverlayPropertiesTest {
+
+	@BeforeAll
+	public static void install() {
+		OverlayProperties.install();
+	}
+
+	@Test		// Each thread sees only its own layer
+	public void concurrentLayersShouldBeIsolated() throws Exception {
+		CountDownLatch bothPushed = new CountDownLatch(2);
+
+		CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> readWhilePushed("one", bothPushed));
+		CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> readWhilePushed("two", bothPushed));
+
+		assertEquals("one", first.get());
+		assertEquals("two", second.get());
+		assertNull(System.getProperty("jext.overlay"));
+	}
+
+	@Test		// Newer layers win, and closing one uncovers the one below
+	public void layersShouldStack() {
+		try (OverlayProperties.Layer outer = OverlayProperties.push(Map.of("jext.overlay", "outer"))) {
+			try (OverlayProperties.Layer inner = OverlayProperties.push(Map.of("jext.overlay", "inner"))) {
+				assertEquals("inner", System.getProperty("jext.overlay"));
+			}
+			assertEquals("outer", System.getProperty("jext.overlay"));
+		}
+		assertNull(System.getProperty("jext.overlay"));
+	}
+
+	@Test		// A thread started by the test sees its layer, but not after it is closed
+	public void childThreadShouldInheritLayerUntilClosed() throws Exception {
+		AtomicReference<String> seen = new AtomicReference<>();
+		CountDownLatch read = new CountDownLatch(1);
+		CountDownLatch closed = new CountDownLatch(1);
+		Thread child;
+
+		try (OverlayProperties.Layer layer = OverlayProperties.push(Map.of("jext.overlay", "parent"))) {
+			child = new Thread(() -> {
+				seen.set(System.getProperty("jext.overlay"));
+				read.countDown();
+				awaitQuietly(closed);
+				seen.set(seen.get() + "," + System.getProperty("jext.overlay"));
+			});
+			child.start();
+			read.await();
+		}
+
+		closed.countDown();
+		child.join();
+
+		assertEquals("parent,null", seen.get());
+	}
+
+	@Test		// Views, enumerations and output all include the layer, w/ it winning over the shared value
+	public void viewsShouldMergeLayers() throws IOException {
+		Properties props = System.getProperties();
+		System.setProperty("jext.shared", "shared");
+
+		try (OverlayProperties.Layer layer = OverlayProperties.push(Map.of("jext.overlay", "layer", "jext.shared", "layer"))) {
+			assertTrue(props.stringPropertyNames().contains("jext.overlay"));
+			assertTrue(Collections.list(props.propertyNames()).contains("jext.overlay"));
+			assertTrue(Collections.list(props.keys()).contains("jext.overlay"));
+			assertTrue(props.keySet().contains("jext.overlay"));
+			assertTrue(props.entrySet().contains(Map.entry("jext.overlay", "layer")));
+			assertTrue(props.entrySet().contains(Map.entry("jext.shared", "layer")));
+			assertTrue(props.values().contains("layer"));
+			assertFalse(props.containsValue("shared"));
+			assertEquals("layer", props.getOrDefault("jext.overlay", "default"));
+			assertEquals("layer", props.getProperty("jext.shared", "default"));
+			assertEquals(props.stringPropertyNames().size(), props.size());
+
+			Properties stored = new Properties();
+			stored.load(new StringReader(store(props)));
+			assertEquals("layer", stored.getProperty("jext.overlay"));
+			assertEquals("layer", stored.getProperty("jext.shared"));
+
+			ByteArrayOutputStream xml = new ByteArrayOutputStream();
+			props.storeToXML(xml, null);
+			Properties storedXml = new Properties();
+			storedXml.loadFromXML(new ByteArrayInputStream(xml.toByteArray()));
+			assertEquals("layer", storedXml.getProperty("jext.overlay"));
+
+			StringWriter listed = new StringWriter();
+			props.list(new PrintWriter(listed));
+			assertTrue(listed.toString().contains("jext.overlay=layer"));
+		} finally {
+			System.clearProperty("jext.shared");
+		}
+
+		assertFalse(props.stringPropertyNames().contains("jext.overlay"));
+		assertFalse(props.keySet().contains("jext.overlay"));
+		assertEquals("default", props.getOrDefault("jext.overlay", "default"));
+		assertFalse(store(props).contains("jext.overlay"));
+	}
+
+	@Test		// The merged views are snapshots, so writing through them would be lost
+	public void viewsShouldBeUnmodifiableWhileLayered() {
+		Properties props = System.getProperties();
+
+		try (OverlayProperties.Layer layer = OverlayProperties.push(Map.of("jext.overlay", "layer"))) {
+			assertThrows(UnsupportedOperationException.class, () -> props.keySet().remove("jext.overlay"));
+			assertThrows(UnsupportedOperationException.class, () -> props.entrySet().clear());
+			assertThrows(UnsupportedOperationException.class, () -> props.values().clear());
+		}
+	}
+
+	private static String store(Properties props) throws IOException {
+		StringWriter out = new StringWriter();
+		props.store(out, null);
+		return out.toString();
+	}
+
+	static String readWhilePushed(String value, CountDownLatch bothPushed) {
+		try (OverlayProperties.Layer layer = OverlayProperties.push(Map.of("jext.overlay", value))) {
+			bothPushed.countDown();
+			awaitQuietly(bothPushed);
+			return System.getProperty("jext.overlay");
+		}
+	}
+
+	static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package jextension;
+
+import jextension.ConfigScenarios.ScenarioTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the Scenario classes in parallel w/ @OverlayConfigAnn, which only takes a READ lock, so
+ * tests w/ different configurations run at the same time, and each sees only its own.
+ */
+public class ParallelOverlayTest {
+
+	/** Each scenario test waits here, so they all have their configurations applied at once */
+	static CyclicBarrier allApplied;
+
+	@ScenarioTest		// Installs the OverlayProperties as the System properties
+	public void concurrentTestsShouldEachSeeTheirOwnConfiguration() {
+		allApplied = new CyclicBarrier(3);
+
+		ConfigScenarios.runInParallel(3, Map.of(), ConfiguredScenario.class, OtherScenario.class);
+	}
+
+	/** Wait for the other scenario tests, then check the configuration is still this test's own */
+	static void expectWhileAllApplied(String phaser) throws Exception {
+		assertEquals(phaser, System.getProperty("phaser"));
+		allApplied.await(10, TimeUnit.SECONDS);
+		assertEquals(phaser, System.getProperty("phaser"));
+	}
+
+	@OverlayConfigAnn(filepath = "/other.props")
+	static class ConfiguredScenario {
+		@Test
+		void classConfigShouldBeSeen() throws Exception {
+			expectWhileAllApplied("entertain");
+		}
+
+		@OverlayConfigAnn(filepath = "/MyFile.props")
+		@Test
+		void methodOverrideShouldBeSeen() throws Exception {
+			expectWhileAllApplied("stun");
+		}
+	}
+
+	@OverlayConfigAnn(filepath = "/layers/nested.props")
+	static class OtherScenario {
+		@Test		// Doesn't set 'phaser'
+		void otherConfigShouldBeSeen() throws Exception {
+			assertEquals("5", System.getProperty("warp"));
+			expectWhileAllApplied(null);
+		}
+	}
+}
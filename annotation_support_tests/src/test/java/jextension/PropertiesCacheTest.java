@@ -0,0 +1,206 @@
+package jextension;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PropertiesCacheTest {
+
+	@Test		// The second request is a cache hit, w/ the same snapshot
+	public void resourceShouldBeParsedOnce() throws Exception {
+		PropertiesCache cache = new PropertiesCache(4);
+
+		Map<String, String> first = cache.get(PropertiesCacheTest.class, "/MyFile.props");
+		Map<String, String> second = cache.get(PropertiesCacheTest.class, "/MyFile.props");
+
+		assertEquals("stun", first.get("phaser"));
+		assertSame(first, second);
+		assertEquals(1, cache.loadCount());
+	}
+
+	@Test		// Snapshots are shared, so must not be changed
+	public void snapshotShouldBeUnmodifiable() throws Exception {
+		Map<String, String> props = new PropertiesCache(4).get(PropertiesCacheTest.class, "/MyFile.props");
+
+		assertThrows(UnsupportedOperationException.class, () -> props.put("phaser", "overload"));
+	}
+
+	@Test		// Keyed by loader and resource name, not by the class asking
+	public void classesInTheSameLoaderShouldShareAnEntry() throws Exception {
+		PropertiesCache cache = new PropertiesCache(4);
+
+		cache.get(PropertiesCacheTest.class, "/MyFile.props");
+		cache.get(jextension.misc.ExtensionContextParamResolver.class, "/MyFile.props");
+
+		assertEquals(1, cache.loadCount());
+	}
+
+	@Test		// Least recently used is evicted first
+	public void leastRecentlyUsedEntryShouldBeEvicted() throws Exception {
+		PropertiesCache cache = new PropertiesCache(1);
+
+		cache.get(PropertiesCacheTest.class, "/MyFile.props");
+		cache.get(PropertiesCacheTest.class, "/other.props");
+		cache.get(PropertiesCacheTest.class, "/MyFile.props");
+
+		assertEquals(1, cache.size());
+		assertEquals(3, cache.loadCount());
+	}
+
+	@Test
+	public void missingResourceShouldThrow() {
+		assertThrows(FileNotFoundException.class,
+				() -> new PropertiesCache(4).get(PropertiesCacheTest.class, "/NoSuchFile.props"));
+	}
+
+	@Test		// Unchanged, so only stat'ed, not read again
+	public void unchangedFileShouldBeReadOnce(@TempDir Path dir) throws Exception {
+		PropertiesCache cache = new PropertiesCache(4);
+		Path file = Files.writeString(dir.resolve("dev.props"), "phaser: stun");
+
+		PropertySnapshot first = cache.get(PropertiesCacheTest.class, PropertiesCache.FILE_PREFIX + file);
+		PropertySnapshot second = cache.get(PropertiesCacheTest.class, PropertiesCache.FILE_PREFIX + file);
+
+		assertEquals("stun", first.get("phaser"));
+		assertSame(first, second);
+		assertEquals(1, cache.loadCount());
+	}
+
+	@Test		// An edit is seen on the next get
+	public void changedFileShouldBeReadAgain(@TempDir Path dir) throws Exception {
+		PropertiesCache cache = new PropertiesCache(4);
+		Path file = Files.writeString(dir.resolve("dev.props"), "phaser: stun");
+		cache.get(PropertiesCacheTest.class, PropertiesCache.FILE_PREFIX + file);
+
+		Files.writeString(file, "phaser: entertain");
+
+		assertEquals("entertain", cache.get(PropertiesCacheTest.class, PropertiesCache.FILE_PREFIX + file).get("phaser"));
+		assertEquals(2, cache.loadCount());
+	}
+
+	@Test		// Same size, so only the modified time shows the change
+	public void touchedFileShouldBeReadAgain(@TempDir Path dir) throws Exception {
+		PropertiesCache cache = new PropertiesCache(4);
+		Path file = Files.writeString(dir.resolve("dev.props"), "phaser: stun");
+		cache.get(PropertiesCacheTest.class, PropertiesCache.FILE_PREFIX + file);
+
+		FileTime modified = Files.getLastModifiedTime(file);
+		Files.writeString(file, "phaser: kill");
+		Files.setLastModifiedTime(file, FileTime.fromMillis(modified.toMillis() + 1000));
+
+		assertEquals("kill", cache.get(PropertiesCacheTest.class, PropertiesCache.FILE_PREFIX + file).get("phaser"));
+	}
+
+	@Test		// Different spellings of the same file share an entry
+	public void filePathsShouldBeNormalized(@TempDir Path dir) throws Exception {
+		PropertiesCache cache = new PropertiesCache(4);
+		Path file = Files.writeString(dir.resolve("dev.props"), "phaser: stun");
+
+		cache.get(PropertiesCacheTest.class, PropertiesCache.FILE_PREFIX + file);
+		cache.get(PropertiesCacheTest.class, PropertiesCache.FILE_PREFIX + dir.resolve("sub/../dev.props"));
+
+		assertEquals(1, cache.loadCount());
+	}
+
+	@Test
+	public void missingFileShouldThrow(@TempDir Path dir) {
+		assertThrows(IOException.class,
+				() -> new PropertiesCache(4).get(PropertiesCacheTest.class, PropertiesCache.FILE_PREFIX + dir.resolve("none.props")));
+	}
+
+	@Test		// The prefetch does the only load, and get() finds its result
+	public void prefetchedResourceShouldNotBeLoadedAgain() throws Exception {
+		PropertiesCache cache = new PropertiesCache(4);
+		HeldExecutor executor = new HeldExecutor();
+
+		CompletableFuture<PropertySnapshot> prefetched = cache.prefetch(PropertiesCacheTest.class, "/MyFile.props", executor);
+		assertSame(prefetched, cache.prefetch(PropertiesCacheTest.class, "/MyFile.props", executor), "Should reuse the prefetch in progress");
+		executor.runAll();
+
+		assertSame(prefetched.get(), cache.get(PropertiesCacheTest.class, "/MyFile.props"));
+		assertEquals(1, cache.loadCount());
+		assertEquals(1, executor.ran);
+	}
+
+	@Test		// get() waits for the prefetch in progress rather than reading the file too
+	public void getShouldWaitForPrefetchInProgress() throws Exception {
+		PropertiesCache cache = new PropertiesCache(4);
+		HeldExecutor executor = new HeldExecutor();
+		cache.prefetch(PropertiesCacheTest.class, "/MyFile.props", executor);
+
+		CompletableFuture<PropertySnapshot> got = new CompletableFuture<>();
+		Thread getter = new Thread(() -> {
+			try {
+				got.complete(cache.get(PropertiesCacheTest.class, "/MyFile.props"));
+			} catch (Throwable t) {
+				got.completeExceptionally(t);
+			}
+		});
+		getter.start();
+
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (cache.joinCount() == 0 && ! got.isDone()) {		// Until it has found the prefetch in progress
+			assertTrue(System.nanoTime() < deadline, "get() never reached the prefetch");
+			Thread.sleep(1);
+		}
+
+		assertFalse(got.isDone(), "get() should not finish before the prefetch has run");
+		executor.runAll();
+
+		assertEquals("stun", got.get(10, TimeUnit.SECONDS).get("phaser"));
+		assertEquals(1, cache.joinCount());
+		assertEquals(1, cache.loadCount());
+	}
+
+	@Test		// Already cached, so nothing to do in the background
+	public void cachedResourceShouldNotBePrefetched() throws Exception {
+		PropertiesCache cache = new PropertiesCache(4);
+		HeldExecutor executor = new HeldExecutor();
+		PropertySnapshot props = cache.get(PropertiesCacheTest.class, "/MyFile.props");
+
+		assertSame(props, cache.prefetch(PropertiesCacheTest.class, "/MyFile.props", executor).get());
+		assertEquals(0, executor.held.size());
+	}
+
+	@Test		// The failure is reported by the future, and by get() as it would have been w/o the prefetch
+	public void failedPrefetchShouldBeReported() {
+		PropertiesCache cache = new PropertiesCache(4);
+
+		CompletableFuture<PropertySnapshot> prefetched = cache.prefetch(PropertiesCacheTest.class, "/NoSuchFile.props", Runnable::run);
+
+		CompletionException e = assertThrows(CompletionException.class, prefetched::join);
+		assertInstanceOf(FileNotFoundException.class, e.getCause());
+		assertThrows(FileNotFoundException.class, () -> cache.get(PropertiesCacheTest.class, "/NoSuchFile.props"));
+	}
+
+	/** Holds tasks until told to run them */
+	private static final class HeldExecutor implements Executor {
+		final List<Runnable> held = new ArrayList<>();
+		int ran;
+
+		@Override
+		public synchronized void execute(Runnable task) {
+			held.add(task);
+		}
+
+		synchronized void runAll() {
+			held.forEach(Runnable::run);
+			ran += held.size();
+			held.clear();
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package jextension;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PropertiesLoader should always agree w/ Properties.load(InputStream).
+ */
+public class PropertiesLoaderTest {
+
+	static final List<String> CASES = List.of(
+			"",
+			"phaser: stun",
+			"a=1\nb = 2\nc:3\nd 4\ne\t5\nf\f6",
+			"# comment\n! also a comment\n  # indented comment\nkey=value\n",
+			"\n\n   \nkey=value\r\nother=value2\rthird=value3",
+			"key=line one \\\n    line two \\\r\n\tline three",
+			"comment ends w/ continuation\n# not continued \\\nkey=value",
+			"key\\ with\\ spaces=value\\=with\\:seps",
+			"escapes=\\t\\n\\r\\f\\\\\\q\\#",
+			"unicode=\\u0041\\u00e9\\u4E2D",
+			"key==value\nkey2 = : value\nkey3 :=value",
+			"duplicate=first\nduplicate=second",
+			"trailing=backslash at end \\",
+			"keyonly\nkeyonly2=\n  keyonly3   ",
+			"latin1=caf\u00e9",
+			"\\\n#after a lone continuation\nk=v",
+			"k=v\\\\\nk2=v2",
+			"a=b\n\\");
+
+	@Test
+	public void parseShouldMatchPropertiesLoad() throws IOException {
+		for (String text : CASES) {
+			byte[] bytes = text.getBytes(StandardCharsets.ISO_8859_1);
+
+			assertEquals(PropertySnapshot.of(load(bytes)), PropertiesLoader.parse(ByteBuffer.wrap(bytes)),
+					() -> "Differs from Properties.load for:\n" + text);
+		}
+	}
+
+	@Test		// A continuation backslash, then EOF right after the line break, is an empty key
+	public void continuationAtEndOfInputShouldBeAnEmptyKey() throws IOException {
+		for (String text : List.of("a=b\n\\\n", "a=b\n\\\r", "\\\n", "a=b\n  \\\n")) {
+			byte[] bytes = text.getBytes(StandardCharsets.ISO_8859_1);
+
+			assertEquals("", load(bytes).getProperty(""), () -> "Properties.load differs for:\n" + text);
+			assertEquals("", PropertiesLoader.parse(ByteBuffer.wrap(bytes)).get(""), () -> "No empty key for:\n" + text);
+		}
+	}
+
+	@Test
+	public void malformedUnicodeEscapeShouldThrow() {
+		byte[] bytes = "bad=\\u12G4".getBytes(StandardCharsets.ISO_8859_1);
+
+		assertThrows(IllegalArgumentException.class, () -> PropertiesLoader.parse(ByteBuffer.wrap(bytes)));
+	}
+
+	@Test		// Thousands of entries, w/ continuations and escapes
+	public void largeFileShouldMatchPropertiesLoad(@TempDir Path dir) throws IOException {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; text.length() < 128 * 1024; i++) {
+			text.append("# entry ").append(i).append('\n')
+					.append("key.").append(i).append(" = value \\\n    ").append(i).append("\\u0021\n");
+		}
+
+		Path file = dir.resolve("large.props");
+		Files.writeString(file, text, StandardCharsets.ISO_8859_1);
+
+		assertEquals(PropertySnapshot.of(load(Files.readAllBytes(file))), PropertiesLoader.load(file));
+	}
+
+	@Test		// From the classpath, a file: URL
+	public void resourceShouldLoad() throws IOException {
+		assertEquals("stun", PropertiesLoader.load(PropertiesLoaderTest.class, "/MyFile.props").get("phaser"));
+	}
+
+	static Properties load(byte[] bytes) throws IOException {
+		Properties props = new Properties();
+		props.load(new ByteArrayInputStream(bytes));
+		return props;
+	}
+}
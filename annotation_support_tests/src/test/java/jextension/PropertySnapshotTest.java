@@ -0,0 +1,75 @@
+package jextension;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PropertySnapshotTest {
+
+	@Test
+	public void snapshotShouldEqualTheMapItWasBuiltFrom() {
+		Map<String, String> map = Map.of("b", "2", "a", "1", "c", "3");
+		PropertySnapshot snapshot = PropertySnapshot.of(map);
+
+		assertEquals(map, snapshot);
+		assertEquals(map.hashCode(), snapshot.hashCode());
+		assertEquals("2", snapshot.get("b"));
+		assertNull(snapshot.get("d"));
+		assertNull(snapshot.get(42));
+		assertTrue(snapshot.containsKey("c"));
+	}
+
+	@Test		// As in Properties.load, the last value for a key wins
+	public void builderShouldKeepLastValueForAKey() {
+		PropertySnapshot snapshot = new PropertySnapshot.Builder()
+				.put("phaser", "stun").put("other", "x").put("phaser", "entertain").build();
+
+		assertEquals(Map.of("phaser", "entertain", "other", "x"), snapshot);
+	}
+
+	@Test		// Enough keys to grow the table several times
+	public void largeSnapshotShouldFindEveryKey() {
+		Map<String, String> map = new HashMap<>();
+		for (int i = 0; i < 10_000; i++) {
+			map.put("key." + i, "value." + (i % 100));
+		}
+
+		PropertySnapshot snapshot = PropertySnapshot.of(map);
+
+		assertEquals(map, snapshot);
+		map.forEach((k, v) -> assertEquals(v, snapshot.get(k)));
+		assertEquals(map.size(), snapshot.entrySet().stream().count());
+	}
+
+	@Test		// Equal short values share a String
+	public void stringsShouldBeShared() {
+		PropertySnapshot snapshot = PropertySnapshot.of(Map.of("one", new String("same"), "two", new String("same")));
+
+		assertSame(snapshot.get("one"), snapshot.get("two"));
+	}
+
+	@Test
+	public void snapshotShouldBeReadOnly() {
+		PropertySnapshot snapshot = PropertySnapshot.of(Map.of("a", "1"));
+
+		assertThrows(UnsupportedOperationException.class, () -> snapshot.put("b", "2"));
+		assertThrows(UnsupportedOperationException.class, () -> snapshot.entrySet().iterator().next().setValue("x"));
+	}
+
+	@Test		// Converting back gives a separate, modifiable copy
+	public void toPropertiesShouldCopy() {
+		Properties source = new Properties();
+		source.setProperty("phaser", "stun");
+
+		PropertySnapshot snapshot = PropertySnapshot.of(source);
+		Properties copy = snapshot.toProperties();
+		copy.setProperty("phaser", "entertain");
+
+		assertEquals("stun", snapshot.get("phaser"));
+		assertEquals("entertain", copy.getProperty("phaser"));
+	}
+}
@@ -0,0 +1,52 @@
+package jextension;
+
+import jextension.misc.ExtensionContextParamResolver;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.junit.jupiter.api.parallel.Resources;
+import org.junit.platform.testkit.engine.EngineTestKit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+
+@ExtendWith(ExtensionContextParamResolver.class)
+public class RegistrationSourceTest {
+
+	@Test		// Nothing here names ConfigExt, so it isn't taken to come from a composed annotation
+	public void unnamedExtensionShouldBeUnknown(ExtensionContext context) {
+		assertEquals(RegistrationSource.UNKNOWN, RegistrationSource.of(context, new ConfigExt()));
+	}
+
+	@Test		// @ConfigAnn names ConfigExt through its @ExtendWith
+	@ConfigAnn(filepath = "/MyFile.props")
+	@ResourceLock(Resources.SYSTEM_PROPERTIES)
+	public void composedAnnotationShouldBeComposed(ExtensionContext context) {
+		assertEquals(RegistrationSource.COMPOSED, RegistrationSource.of(context, new ConfigExt()));
+	}
+
+	@Test		// CheckExt is listed in META-INF/services, but w/o autodetection that isn't how it got here
+	public void listedExtensionShouldBeUnknownWithoutAutodetection(ExtensionContext context) {
+		assertEquals(RegistrationSource.UNKNOWN, RegistrationSource.of(context, new AnnotationCacheConsistencyTest.CheckExt()));
+	}
+
+	@Test
+	public void listedExtensionShouldBeAutodetected() {
+		EngineTestKit.engine("junit-jupiter")
+				.configurationParameter(RegistrationSource.AUTODETECTION_PARAMETER, "true")
+				.selectors(selectClass(AutodetectionScenario.class))
+				.execute()
+				.testEvents()
+				.assertStatistics(stats -> stats.started(1).succeeded(1));
+	}
+
+	@ExtendWith(ExtensionContextParamResolver.class)
+	static class AutodetectionScenario {
+		@Test
+		void listedExtensionShouldBeAutodetected(ExtensionContext context) {
+			assertEquals(RegistrationSource.AUTODETECTED, RegistrationSource.of(context, new AnnotationCacheConsistencyTest.CheckExt()));
+			assertEquals(RegistrationSource.UNKNOWN, RegistrationSource.of(context, new Object()));
+		}
+	}
+}
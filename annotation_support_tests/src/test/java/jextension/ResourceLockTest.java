@@ -0,0 +1,98 @@
+package jextension;
+
+import jextension.ConfigScenarios.ScenarioTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceAccessMode;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.junit.jupiter.api.parallel.Resources;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+import java.lang.reflect.AnnotatedElement;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The annotations declare their System properties locks as meta-annotations.  JUnit finds a
+ * test's locks w/ a repeatable annotation search, as AnnotationSupport.findRepeatableAnnotations
+ * does here.
+ *
+ * @ConfigAnn and @SimpleAnn take a READ_WRITE lock, so the modes that apply configurations to
+ * the real System properties still work in parallel runs.  Only @OverlayConfigAnn, which is always
+ * an overlay, and @ReadsConfigAnn take a READ lock.
+ */
+public class ResourceLockTest {
+
+	@Test
+	public void configAnnShouldLockForWrite() {
+		assertEquals(List.of(ResourceAccessMode.READ_WRITE), modes(Configured.class));
+	}
+
+	@Test		// A method annotation locks just the method
+	public void methodAnnotationShouldLockForWrite() throws NoSuchMethodException {
+		assertEquals(List.of(ResourceAccessMode.READ_WRITE), modes(Unconfigured.class.getDeclaredMethod("configured")));
+		assertEquals(List.of(), modes(Unconfigured.class));
+	}
+
+	@Test		// @ComposedFromSimpleAnn -> @SimpleAnn -> @ResourceLock
+	public void composedAnnotationShouldLockForWrite() {
+		assertEquals(List.of(ResourceAccessMode.READ_WRITE), modes(ComposedFromSimpleAnnTest.class));
+	}
+
+	@Test		// @SimpleAnnInherited is on the superclass
+	public void inheritedAnnotationShouldLockForWrite() {
+		assertEquals(List.of(ResourceAccessMode.READ_WRITE), modes(ComposedFromSimpleAnnInheritedSubclassTest.class));
+	}
+
+	@Test
+	public void overlayConfigAnnShouldLockForRead() {
+		assertEquals(List.of(ResourceAccessMode.READ), modes(Overlaid.class));
+	}
+
+	@Test
+	public void readsConfigAnnShouldLockForRead() {
+		assertEquals(List.of(ResourceAccessMode.READ), modes(Reader.class));
+	}
+
+	@ScenarioTest		// W/o overlay, the annotated classes take turns applying their class configurations
+	public void classScopedModeShouldWorkInParallelRuns() {
+		ConfigScenarios.runInParallel(10, Map.of(ConfigExt.CLASS_SCOPED_PARAMETER, "true"),
+				ConfigExtClassScopedTest.Scenario.class, ConfigExtDiffTest.Scenario.class);
+	}
+
+	@ScenarioTest		// Nothing is applied before the other class has restored everything it left applied
+	public void diffModeShouldWorkInParallelRuns() {
+		ConfigScenarios.runInParallel(6, Map.of(ConfigExt.DIFF_PARAMETER, "true"),
+				ConfigExtDiffTest.Scenario.class, ConfigExtClassScopedTest.PerTestScenario.class);
+	}
+
+	private static List<ResourceAccessMode> modes(AnnotatedElement element) {
+		return AnnotationSupport.findRepeatableAnnotations(element, ResourceLock.class).stream()
+				.filter(lock -> lock.value().equals(Resources.SYSTEM_PROPERTIES))
+				.map(ResourceLock::mode)
+				.collect(Collectors.toList());
+	}
+
+	@ConfigAnn(filepath = "/MyFile.props")
+	static class Configured {
+		@Test
+		void configured() {
+		}
+	}
+
+	static class Unconfigured {
+		@ConfigAnn(filepath = "/MyFile.props")
+		void configured() {
+		}
+	}
+
+	@OverlayConfigAnn(filepath = "/MyFile.props")
+	static class Overlaid {
+	}
+
+	@ReadsConfigAnn
+	static class Reader {
+	}
+}
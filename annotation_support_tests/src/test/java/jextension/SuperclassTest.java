@@ -41,6 +41,12 @@ public class SuperclassTest extends SuperclassTestBase {
 				context, SimpleAnn.class).isPresent());
 	}
 
+	@Test		// The summary includes annotations found via the superclass
+	public void mayHaveAnnotationShouldSeeSuperclassAnnotation(ExtensionContext context) {
+		assertTrue(ExtensionUtil.mayHaveAnnotation(context.getRequiredTestClass(), SimpleAnn.class));
+		assertFalse(ExtensionUtil.mayHaveAnnotation(context.getRequiredTestClass(), ConfigAnn.class));
+	}
+
 	@Test		//junit-pioneer
 	@ExpectedToFail("pioneer findClosestEnclosingAnnotation can't find ann. on super b/c it is not @Inherited")
 	public void findClosestEnclosingAnnotationShouldFindParentAnnotation(ExtensionContext context) {
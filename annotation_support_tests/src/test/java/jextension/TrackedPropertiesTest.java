@@ -0,0 +1,75 @@
+package jextension;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.junit.jupiter.api.parallel.Resources;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sets real (global) System properties, so can't run alongside other tests that do
+@ResourceLock(Resources.SYSTEM_PROPERTIES)
+public class TrackedPropertiesTest {
+
+	static final PropertySnapshot FIRST = PropertySnapshot.of(Map.of("jext.a", "1", "jext.b", "1", "jext.only1", "x"));
+	static final PropertySnapshot SECOND = PropertySnapshot.of(Map.of("jext.a", "1", "jext.b", "2", "jext.only2", "y"));
+
+	@AfterEach
+	public void clear() {
+		for (String key : new String[] { "jext.a", "jext.b", "jext.only1", "jext.only2" }) {
+			System.clearProperty(key);
+		}
+	}
+
+	@Test		// jext.b changed, jext.only1 removed, jext.only2 added.  jext.a is left alone.
+	public void switchShouldApplyOnlyTheDifference() {
+		TrackedProperties tracked = new TrackedProperties();
+
+		assertEquals(3, tracked.switchTo(FIRST));
+		assertEquals(3, tracked.switchTo(SECOND));
+
+		assertEquals("1", System.getProperty("jext.a"));
+		assertEquals("2", System.getProperty("jext.b"));
+		assertNull(System.getProperty("jext.only1"));
+		assertEquals("y", System.getProperty("jext.only2"));
+		assertSame(SECOND, tracked.current());
+	}
+
+	@Test		// The same snapshot again is free
+	public void switchToCurrentShouldChangeNothing() {
+		TrackedProperties tracked = new TrackedProperties();
+		tracked.switchTo(FIRST);
+
+		assertEquals(0, tracked.switchTo(FIRST));
+	}
+
+	@Test		// A removed key that was set before the first switch gets that value back, not cleared
+	public void removedKeyShouldGetItsOriginalValueBack() {
+		System.setProperty("jext.only1", "original");
+		TrackedProperties tracked = new TrackedProperties();
+
+		tracked.switchTo(FIRST);
+		assertEquals("x", System.getProperty("jext.only1"));
+
+		tracked.switchTo(SECOND);
+		assertEquals("original", System.getProperty("jext.only1"));
+	}
+
+	@Test		// Every touched key goes back to how it was before the first switch
+	public void restoreShouldPutBackTheOriginals() {
+		System.setProperty("jext.b", "original");
+		TrackedProperties tracked = new TrackedProperties();
+
+		tracked.switchTo(FIRST);
+		tracked.switchTo(SECOND);
+		tracked.switchTo(FIRST);
+		tracked.restore();
+
+		assertNull(System.getProperty("jext.a"));
+		assertEquals("original", System.getProperty("jext.b"));
+		assertNull(System.getProperty("jext.only1"));
+		assertNull(System.getProperty("jext.only2"));
+	}
+}
@@ -0,0 +1,92 @@
+package jextension;
+
+import jextension.Shapes.Shape;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.junit.platform.commons.support.SearchOption;
+import org.junitpioneer.internal.PioneerAnnotationUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.annotation.Annotation;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of each annotation lookup strategy that annotation_support_tests compares for correctness,
+ * over the test class Shapes.  Run w/ '-prof gc' to see the allocation rate of each.
+ *
+ * found=false looks for an annotation that is nowhere in the shape, which is the common case
+ * for an extension checking for optional configuration.
+ *
+ * Note that AnnotationSupport and PioneerAnnotationUtils don't find non-@Inherited annotations
+ * on superclasses, so for some shapes they return empty after doing less work:  These numbers
+ * are about cost, the tests are about correctness.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnnotationLookupBenchmark {
+
+	@Param
+	Shape shape;
+
+	@Param({ "true", "false" })
+	boolean found;
+
+	Class<?> testClass;
+	Class<? extends Annotation> annotationType;
+	ExtensionContext methodContext;
+
+	@Setup
+	public void setup() throws NoSuchMethodException {
+		testClass = shape.leaf;
+		annotationType = found ? ConfigAnn.class : SimpleAnn.class;
+		methodContext = StubExtensionContext.forMethod(testClass.getMethod("test"));
+
+		if (ExtensionUtil.findAnnotationForExtension(methodContext, annotationType).isPresent() != found) {
+			throw new IllegalStateException("Shape " + shape + " is not set up as expected for found=" + found);
+		}
+	}
+
+	/** The public API, w/ the method cache and class context Store cache warm */
+	@Benchmark
+	public Optional<? extends Annotation> extensionUtil() {
+		return ExtensionUtil.findAnnotationForExtension(methodContext, annotationType);
+	}
+
+	/** The original, fully reflective search:  No caches, compile-time index or summaries */
+	@Benchmark
+	public Optional<? extends Annotation> extensionUtilUncached() {
+		return ExtensionUtil.findAnnotationForExtensionUncached(methodContext, annotationType);
+	}
+
+	/** The allocation-free internal class lookup */
+	@Benchmark
+	public Annotation extensionUtilFindAnnotationOrNull() {
+		return ExtensionUtil.findAnnotationOrNull(testClass, annotationType);
+	}
+
+	/** The class walk w/o the compile-time index */
+	@Benchmark
+	public Optional<? extends Annotation> extensionUtilReflective() {
+		return ExtensionUtil.searchAnnotation(testClass, annotationType);
+	}
+
+	@Benchmark
+	public Optional<? extends Annotation> annotationSupport() {
+		return AnnotationSupport.findAnnotation(testClass, annotationType);
+	}
+
+	@Benchmark
+	public Optional<? extends Annotation> annotationSupportIncludeEnclosing() {
+		return AnnotationSupport.findAnnotation(testClass, annotationType, SearchOption.INCLUDE_ENCLOSING_CLASSES);
+	}
+
+	@Benchmark
+	public Optional<? extends Annotation> pioneerFindClosestEnclosing() {
+		return PioneerAnnotationUtils.findClosestEnclosingAnnotation(methodContext, annotationType);
+	}
+}
@@ -0,0 +1,77 @@
+package jextension;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PropertiesLoader vs Properties.load for a generated properties dump, w/ comments, continuation
+ * lines and escapes.  Run w/ '-prof gc' to compare the garbage from each.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertiesLoadBenchmark {
+
+	/** Approximate file size in KB */
+	@Param({ "16", "1024", "8192" })
+	int sizeKb;
+
+	Path file;
+
+	@Setup
+	public void setup() throws IOException {
+		StringBuilder text = new StringBuilder();
+
+		for (int i = 0; text.length() < sizeKb * 1024; i++) {
+			if (i % 10 == 0) {
+				text.append("# Section ").append(i / 10).append(" of the generated dump\n\n");
+			}
+
+			text.append("app.module").append(i % 50).append(".setting.").append(i)
+					.append(" = some\\ value w/ \\t escapes \\u00e9 and a continuation \\\n")
+					.append("    line for entry ").append(i).append('\n');
+		}
+
+		file = Files.createTempFile("bench", ".props");
+		Files.writeString(file, text, StandardCharsets.ISO_8859_1);
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(file);
+	}
+
+	@Benchmark
+	public Map<String, String> propertiesLoader() throws IOException {
+		return PropertiesLoader.load(file);
+	}
+
+	@Benchmark
+	public Properties propertiesLoad() throws IOException {
+		Properties props = new Properties();
+
+		try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+			props.load(in);
+		}
+
+		return props;
+	}
+
+	/** Properties.load, then converted to the snapshot the extensions use */
+	@Benchmark
+	public Map<String, String> propertiesLoadToSnapshot() throws IOException {
+		return PropertySnapshot.of(propertiesLoad());
+	}
+}
@@ -0,0 +1,122 @@
+package jextension;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.ANNOTATION_TYPE;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Test class shapes for the benchmarks, each a 'leaf' class w/ a test() method whose @ConfigAnn
+ * is some distance away:
+ * <ul>
+ *   <li>DEEP_SUPERCLASS:  12 superclasses up</li>
+ *   <li>MANY_INTERFACES:  On the superclass, after 16 interfaces (each w/ a super-interface)</li>
+ *   <li>NESTED:  On the outer class, 4 levels of @Nested-style inner classes out</li>
+ *   <li>COMPOSED:  On the class, but 4 layers of composed annotations deep</li>
+ *   <li>COMBINED:  All of the above:  An inner class 4 levels in, w/ a superclass chain and
+ *   interfaces that don't have it, inside an outer class w/ the composed annotation</li>
+ * </ul>
+ */
+public final class Shapes {
+
+	public enum Shape {
+		DEEP_SUPERCLASS(Deep12.class),
+		MANY_INTERFACES(Wide.class),
+		NESTED(Outer.Level1.Level2.Level3.Level4.class),
+		COMPOSED(Composed.class),
+		COMBINED(CombinedOuter.Level1.Level2.Level3.Level4.class);
+
+		final Class<?> leaf;
+
+		Shape(Class<?> leaf) {
+			this.leaf = leaf;
+		}
+	}
+
+	private Shapes() {
+		/* NO OP - no instances */
+	}
+
+	// Composed annotations, each layer meta-annotated w/ the one below
+	@Retention(RUNTIME) @Target({ TYPE, ANNOTATION_TYPE }) @ConfigAnn(filepath = "/MyFile.props") @interface Layer1 { }
+	@Retention(RUNTIME) @Target({ TYPE, ANNOTATION_TYPE }) @Layer1 @interface Layer2 { }
+	@Retention(RUNTIME) @Target({ TYPE, ANNOTATION_TYPE }) @Layer2 @interface Layer3 { }
+	@Retention(RUNTIME) @Target({ TYPE, ANNOTATION_TYPE }) @Layer3 @interface Layer4 { }
+
+	// Deep superclass chain
+	@ConfigAnn(filepath = "/MyFile.props") static class Deep00 { }
+	static class Deep01 extends Deep00 { }
+	static class Deep02 extends Deep01 { }
+	static class Deep03 extends Deep02 { }
+	static class Deep04 extends Deep03 { }
+	static class Deep05 extends Deep04 { }
+	static class Deep06 extends Deep05 { }
+	static class Deep07 extends Deep06 { }
+	static class Deep08 extends Deep07 { }
+	static class Deep09 extends Deep08 { }
+	static class Deep10 extends Deep09 { }
+	static class Deep11 extends Deep10 { }
+	static class Deep12 extends Deep11 { public void test() { } }
+
+	// Many interfaces
+	interface Wide00Base { }
+	interface Wide00 extends Wide00Base { }
+	interface Wide01Base { }
+	interface Wide01 extends Wide01Base { }
+	interface Wide02Base { }
+	interface Wide02 extends Wide02Base { }
+	interface Wide03Base { }
+	interface Wide03 extends Wide03Base { }
+	interface Wide04Base { }
+	interface Wide04 extends Wide04Base { }
+	interface Wide05Base { }
+	interface Wide05 extends Wide05Base { }
+	interface Wide06Base { }
+	interface Wide06 extends Wide06Base { }
+	interface Wide07Base { }
+	interface Wide07 extends Wide07Base { }
+	interface Wide08Base { }
+	interface Wide08 extends Wide08Base { }
+	interface Wide09Base { }
+	interface Wide09 extends Wide09Base { }
+	interface Wide10Base { }
+	interface Wide10 extends Wide10Base { }
+	interface Wide11Base { }
+	interface Wide11 extends Wide11Base { }
+	interface Wide12Base { }
+	interface Wide12 extends Wide12Base { }
+	interface Wide13Base { }
+	interface Wide13 extends Wide13Base { }
+	interface Wide14Base { }
+	interface Wide14 extends Wide14Base { }
+	interface Wide15Base { }
+	interface Wide15 extends Wide15Base { }
+	@ConfigAnn(filepath = "/MyFile.props") static class WideBase { }
+	static class Wide extends WideBase implements Wide00, Wide01, Wide02, Wide03, Wide04, Wide05, Wide06, Wide07, Wide08, Wide09, Wide10, Wide11, Wide12, Wide13, Wide14, Wide15 { public void test() { } }
+
+	// Nesting
+	@ConfigAnn(filepath = "/MyFile.props") static class Outer {
+		class Level1 { class Level2 { class Level3 { class Level4 { public void test() { } } } } }
+	}
+
+	// Composed
+	@Layer4 static class Composed { public void test() { } }
+
+	// Combined
+	static class Plain00 { }
+	static class Plain01 extends Plain00 { }
+	static class Plain02 extends Plain01 { }
+	static class Plain03 extends Plain02 { }
+	static class Plain04 extends Plain03 { }
+	static class Plain05 extends Plain04 { }
+	static class Plain06 extends Plain05 { }
+	@Layer4 static class CombinedOuter {
+		class Level1 extends Plain06 implements Wide00, Wide01, Wide02, Wide03, Wide04, Wide05, Wide06, Wide07 {
+			class Level2 extends Plain06 { class Level3 extends Plain06 { class Level4 extends Plain06 implements Wide00, Wide01, Wide02, Wide03, Wide04, Wide05, Wide06, Wide07 {
+				public void test() { }
+			} } }
+		}
+	}
+}
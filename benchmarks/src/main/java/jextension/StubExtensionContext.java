@@ -0,0 +1,200 @@
+package jextension;
+
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExecutableInvoker;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.TestInstances;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Just enough of an ExtensionContext to call the lookups outside of a JUnit run:  The same
+ * engine / class / method tree JUnit builds (w/ a class context for each enclosing class of an
+ * inner class), and a map-backed Store that falls back to the parent's, like JUnit's.
+ */
+final class StubExtensionContext implements ExtensionContext {
+
+	private final StubExtensionContext parent;
+	private final Class<?> testClass;
+	private final Method testMethod;
+	private final Map<Namespace, Map<Object, Object>> stores = new ConcurrentHashMap<>();
+
+	private StubExtensionContext(StubExtensionContext parent, Class<?> testClass, Method testMethod) {
+		this.parent = parent;
+		this.testClass = testClass;
+		this.testMethod = testMethod;
+	}
+
+	/**
+	 * The method context for a test method, w/ its class contexts and the engine context above it.
+	 */
+	static StubExtensionContext forMethod(Method testMethod) {
+		return new StubExtensionContext(forClass(testMethod.getDeclaringClass()), testMethod.getDeclaringClass(), testMethod);
+	}
+
+	static StubExtensionContext forClass(Class<?> testClass) {
+		StubExtensionContext parent = ExtensionUtil.isInnerClass(testClass)
+				? forClass(testClass.getEnclosingClass())
+				: new StubExtensionContext(null, null, null);
+
+		return new StubExtensionContext(parent, testClass, null);
+	}
+
+	@Override
+	public Optional<ExtensionContext> getParent() {
+		return Optional.ofNullable(parent);
+	}
+
+	@Override
+	public ExtensionContext getRoot() {
+		return (parent != null) ? parent.getRoot() : this;
+	}
+
+	@Override
+	public String getUniqueId() {
+		return (parent != null ? parent.getUniqueId() : "[engine:stub]")
+				+ (testMethod != null ? "/[method:" + testMethod.getName() + "]"
+				: testClass != null ? "/[class:" + testClass.getName() + "]" : "");
+	}
+
+	@Override
+	public String getDisplayName() {
+		return getUniqueId();
+	}
+
+	@Override
+	public Set<String> getTags() {
+		return Set.of();
+	}
+
+	@Override
+	public Optional<AnnotatedElement> getElement() {
+		return Optional.ofNullable(testMethod != null ? testMethod : testClass);
+	}
+
+	@Override
+	public Optional<Class<?>> getTestClass() {
+		return Optional.ofNullable(testClass);
+	}
+
+	@Override
+	public Optional<TestInstance.Lifecycle> getTestInstanceLifecycle() {
+		return Optional.empty();
+	}
+
+	@Override
+	public Optional<Object> getTestInstance() {
+		return Optional.empty();
+	}
+
+	@Override
+	public Optional<TestInstances> getTestInstances() {
+		return Optional.empty();
+	}
+
+	@Override
+	public Optional<Method> getTestMethod() {
+		return Optional.ofNullable(testMethod);
+	}
+
+	@Override
+	public Optional<Throwable> getExecutionException() {
+		return Optional.empty();
+	}
+
+	@Override
+	public Optional<String> getConfigurationParameter(String key) {
+		return Optional.empty();
+	}
+
+	@Override
+	public <T> Optional<T> getConfigurationParameter(String key, Function<String, T> transformer) {
+		return Optional.empty();
+	}
+
+	@Override
+	public void publishReportEntry(Map<String, String> map) {
+		/* NO OP */
+	}
+
+	@Override
+	public ExecutionMode getExecutionMode() {
+		return ExecutionMode.SAME_THREAD;
+	}
+
+	@Override
+	public ExecutableInvoker getExecutableInvoker() {
+		throw new UnsupportedOperationException("Not needed by the lookups");
+	}
+
+	@Override
+	public Store getStore(Namespace namespace) {
+		return new MapStore(namespace);
+	}
+
+	private Object lookup(Namespace namespace, Object key) {
+		Object value = stores.getOrDefault(namespace, Map.of()).get(key);
+
+		return (value == null && parent != null) ? parent.lookup(namespace, key) : value;
+	}
+
+	private Map<Object, Object> local(Namespace namespace) {
+		return stores.computeIfAbsent(namespace, n -> new ConcurrentHashMap<>());
+	}
+
+	private final class MapStore implements Store {
+		private final Namespace namespace;
+
+		MapStore(Namespace namespace) {
+			this.namespace = namespace;
+		}
+
+		@Override
+		public Object get(Object key) {
+			return lookup(namespace, key);
+		}
+
+		@Override
+		public <V> V get(Object key, Class<V> requiredType) {
+			return requiredType.cast(get(key));
+		}
+
+		@Override
+		public <K, V> Object getOrComputeIfAbsent(K key, Function<K, V> defaultCreator) {
+			Object value = get(key);
+
+			if (value == null) {
+				value = local(namespace).computeIfAbsent(key, k -> defaultCreator.apply(key));
+			}
+
+			return value;
+		}
+
+		@Override
+		public <K, V> V getOrComputeIfAbsent(K key, Function<K, V> defaultCreator, Class<V> requiredType) {
+			return requiredType.cast(getOrComputeIfAbsent(key, defaultCreator));
+		}
+
+		@Override
+		public void put(Object key, Object value) {
+			local(namespace).put(key, value);
+		}
+
+		@Override
+		public Object remove(Object key) {
+			return local(namespace).remove(key);
+		}
+
+		@Override
+		public <V> V remove(Object key, Class<V> requiredType) {
+			return requiredType.cast(remove(key));
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package characterization;
+
+import jextension.ExtensionCallback;
+import jextension.InvocationRecorder;
+import jextension.OncePerTest;
+import org.junit.jupiter.api.extension.*;
+
+import java.util.List;
+
+/**
+ * Like SimpleExt, but uses the OncePerTest guard, so registering the same instance (or w/
+ * perClass, any instance) more than once does not repeat its work.
+ */
+public class OnceExt implements BeforeEachCallback, AfterEachCallback, OncePerTest {
+
+	static final InvocationRecorder<String> beforeInvokes = new InvocationRecorder<>();
+
+	private final String _name;
+	private final boolean _perClass;
+
+	public OnceExt(String name) {
+		this(name, false);
+	}
+
+	public OnceExt(String name, boolean perClass) {
+		_name = name;
+		_perClass = perClass;
+	}
+
+	@Override
+	public boolean oncePerClass() {
+		return _perClass;
+	}
+
+	@Override
+	public void beforeEach(final ExtensionContext context) {
+		if (! firstCall(context, ExtensionCallback.BEFORE_EACH)) {
+			return;
+		}
+
+		beforeInvokes.record(context, _name);
+	}
+
+	@Override
+	public void afterEach(final ExtensionContext context) {
+		if (! firstCall(context, ExtensionCallback.AFTER_EACH)) {
+			return;
+		}
+
+		beforeInvokes.clear(context);
+	}
+
+	/**
+	 * Return the name field for the recorded beforeEach calls of the test running on this thread.
+	 * @return
+	 */
+	public static List<String> getBeforeInvocations() {
+		return beforeInvokes.current();
+	}
+}
@@ -0,0 +1,72 @@
+package characterization;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The same duplicate registrations as ProgrammaticRegTest, w/ an extension that uses the
+ * OncePerTest guard:  Each instance does its work once per test, however often it is registered.
+ */
+public class OncePerTestRegTest {
+
+	@RegisterExtension
+	public static OnceExt extTestStatic = new OnceExt("Test Static");
+
+	@RegisterExtension
+	public OnceExt extTestInstance = new OnceExt("Test Instance");
+
+	@Test
+	public void eachInstanceShouldRunOnce() {
+		assertEquals(List.of("Test Static", "Test Instance"), OnceExt.getBeforeInvocations());
+	}
+
+	/**
+	 * The SAME INSTANCES registered again, which ProgrammaticRegTest shows JUnit calls each time.
+	 */
+	@Nested
+	class NestedWithDuplicateInstances {
+		@RegisterExtension
+		public static OnceExt extNestStatic = extTestStatic;
+
+		@RegisterExtension
+		public OnceExt extNestInstance = extTestInstance;
+
+		@RegisterExtension
+		public OnceExt extNestInstance2 = extTestInstance;
+
+		@Test
+		public void duplicateInstancesShouldNotRunAgain() {
+			assertEquals(List.of("Test Static", "Test Instance"), OnceExt.getBeforeInvocations());
+		}
+	}
+
+	/**
+	 * Distinct instances are still separate, unless they collapse per class.
+	 */
+	@Nested
+	class NestedWithDistinctInstances {
+		@RegisterExtension
+		public OnceExt extNestInstance = new OnceExt("Nested Instance");
+
+		@RegisterExtension
+		public OnceExt extPerClass = new OnceExt("Per Class", true);
+
+		@RegisterExtension
+		public OnceExt extPerClass2 = new OnceExt("Per Class 2", true);
+
+		@Test		// Which of the per class instances runs depends on JUnit's field order
+		public void onlyOnePerClassInstanceShouldRun() {
+			List<String> exts = OnceExt.getBeforeInvocations();
+
+			assertEquals(4, exts.size());
+			assertTrue(exts.containsAll(List.of("Test Static", "Test Instance", "Nested Instance")));
+			assertEquals(1, exts.stream().filter(name -> name.startsWith("Per Class")).count());
+		}
+	}
+}
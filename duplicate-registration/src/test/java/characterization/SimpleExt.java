@@ -1,5 +1,8 @@
 package characterization;
 
+import jextension.CallbackTimings;
+import jextension.ExtensionCallback;
+import jextension.InvocationRecorder;
 import org.junit.jupiter.api.extension.*;
 
 import java.io.IOException;
@@ -9,10 +12,12 @@ import java.util.*;
  * Simple extension that is intended to be registered programmatically and
  * to be identifiable:  It has a static method to ask for a list of beforeEach
  * invocations.
+ *
+ * Invocations are recorded per test, so tests can run in parallel.
  */
 public class SimpleExt implements BeforeEachCallback, AfterEachCallback {
 
-	static Queue<String> beforeInvokes = new LinkedList<>();
+	static final InvocationRecorder<String> beforeInvokes = new InvocationRecorder<>();
 
 	private String _name;
 
@@ -26,24 +31,34 @@ public class SimpleExt implements BeforeEachCallback, AfterEachCallback {
 
 	@Override
 	public void beforeEach(final ExtensionContext context) throws IOException {
-		beforeInvokes.add(_name);
-		System.out.println("SimpleExt BeforeEach:  " + _name);
+		long start = CallbackTimings.start();
+		try {
+			beforeInvokes.record(context, _name);
+			System.out.println("SimpleExt BeforeEach:  " + _name);
+		} finally {
+			CallbackTimings.record(context, this, ExtensionCallback.BEFORE_EACH, start);
+		}
 	}
 
 	@Override
 	public void afterEach(final ExtensionContext context) throws IOException {
-		beforeInvokes.remove();
-		System.out.println("SimpleExt AfterEach:  " + _name);
+		long start = CallbackTimings.start();
+		try {
+			beforeInvokes.clear(context);
+			System.out.println("SimpleExt AfterEach:  " + _name);
+		} finally {
+			CallbackTimings.record(context, this, ExtensionCallback.AFTER_EACH, start);
+		}
 	}
 
 	/**
-	 * Return the name field for the recorded beforeEach calls.
-	 * The afterEach pops them off the list, so each test should have just the
-	 * beforeEach calls related to that test.
+	 * Return the name field for the recorded beforeEach calls of the test running on
+	 * this thread.  The afterEach clears them, so each test has just the beforeEach
+	 * calls related to that test.
 	 * @return
 	 */
 	public static List<String> getBeforeInvocations() {
-		return beforeInvokes.stream().toList();
+		return beforeInvokes.current();
 	}
 
 	public String getName() {
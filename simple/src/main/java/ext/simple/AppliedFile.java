@@ -0,0 +1,67 @@
+package ext.simple;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * The properties of a file, set as System properties, w/ the values they replaced so they can be
+ * put back:  Keys that were not set before are removed, keys that were set get their old values.
+ *
+ * Kept in the ExtensionContext.Store between beforeEach and afterEach, so the file is parsed once
+ * per test.  This module is a standalone example, so it does not share the PropertiesCache of the
+ * annotation_support_tests module.
+ */
+final class AppliedFile {
+
+	/** The prior value of each applied key, or null if it was not set */
+	private final Map<String, String> prior;
+
+	private AppliedFile(Map<String, String> prior) {
+		this.prior = prior;
+	}
+
+	/**
+	 * Load the properties resource and set each property as a System property.
+	 *
+	 * @param base Class to resolve the resource against
+	 * @param path
+	 * @return The record to restore from
+	 * @throws IOException
+	 */
+	static AppliedFile apply(Class<?> base, String path) throws IOException {
+		Properties props = new Properties();
+
+		try (InputStream in = base.getResourceAsStream(path)) {
+			if (in == null) {
+				throw new FileNotFoundException("Properties resource not found: " + path);
+			}
+
+			props.load(in);
+		}
+
+		Map<String, String> prior = new HashMap<>();
+
+		for (String key : props.stringPropertyNames()) {
+			prior.put(key, System.setProperty(key, props.getProperty(key)));
+		}
+
+		return new AppliedFile(prior);
+	}
+
+	/**
+	 * Put the System properties back the way they were before apply.
+	 */
+	void restore() {
+		prior.forEach((key, value) -> {
+			if (value == null) {
+				System.clearProperty(key);
+			} else {
+				System.setProperty(key, value);
+			}
+		});
+	}
+}
@@ -1,6 +1,8 @@
 package ext.simple;
 
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.junit.jupiter.api.parallel.Resources;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.Target;
@@ -8,9 +10,16 @@ import java.lang.annotation.Target;
 import static java.lang.annotation.ElementType.*;
 import static java.lang.annotation.RetentionPolicy.RUNTIME;
 
+/**
+ * Apply a properties file as System properties for each test (see ConfigExt).
+ *
+ * This always sets the real System properties, so it declares a READ_WRITE lock on
+ * Resources.SYSTEM_PROPERTIES:  When tests run in parallel, annotated tests run one at a time.
+ */
 @Target({ TYPE, ANNOTATION_TYPE })
 @Retention(RUNTIME)
 @ExtendWith(ConfigExt.class)
+@ResourceLock(Resources.SYSTEM_PROPERTIES)
 public @interface ConfigAnn {
 	String filepath();
 }
@@ -4,10 +4,11 @@ import org.junit.jupiter.api.extension.*;
 import org.junit.platform.commons.support.AnnotationSupport;
 
 import java.io.IOException;
-import java.util.Properties;
 
 public class ConfigExt implements BeforeEachCallback, AfterEachCallback {
 
+	private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(ConfigExt.class);
+
 	public String findPath(final ExtensionContext context) {
 		ConfigAnn ann = AnnotationSupport.findAnnotation(
 				context.getRequiredTestClass(), ConfigAnn.class).get();
@@ -16,17 +17,17 @@ public class ConfigExt implements BeforeEachCallback, AfterEachCallback {
 
 	@Override
 	public void beforeEach(final ExtensionContext context) throws IOException {
-		Properties props = new Properties();
-		props.load(getClass().getResourceAsStream(findPath(context)));
-		System.setProperties(props);
+		AppliedFile applied = AppliedFile.apply(getClass(), findPath(context));
+		context.getStore(NAMESPACE).put(this, applied);
 	}
 
 	@Override
-	public void afterEach(final ExtensionContext context) throws IOException {
-		// reset the sys props ...
-		Properties props = new Properties();
-		props.load(getClass().getResourceAsStream(findPath(context)));
+	public void afterEach(final ExtensionContext context) {
+		// reset the sys props to what they were before this test
+		AppliedFile applied = context.getStore(NAMESPACE).remove(this, AppliedFile.class);
 
-		props.keySet().stream().forEach(k -> System.getProperties().remove(k));
+		if (applied != null) {
+			applied.restore();
+		}
 	}
 }
@@ -1,6 +1,8 @@
 package ext.simple;
 
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.junit.jupiter.api.parallel.Resources;
 import java.lang.annotation.*;
 import static java.lang.annotation.ElementType.*;
 import static java.lang.annotation.RetentionPolicy.RUNTIME;
@@ -8,4 +10,5 @@ import static java.lang.annotation.RetentionPolicy.RUNTIME;
 @Target({ TYPE, ANNOTATION_TYPE })
 @Retention(RUNTIME)
 @ExtendWith(SimpleExt.class)
+@ResourceLock(Resources.SYSTEM_PROPERTIES)
 public @interface SimpleAnn { }
@@ -3,23 +3,24 @@ package ext.simple;
 import org.junit.jupiter.api.extension.*;
 
 import java.io.IOException;
-import java.util.Properties;
 
 public class SimpleExt implements BeforeEachCallback, AfterEachCallback {
 
+	private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(SimpleExt.class);
+
 	@Override
 	public void beforeEach(final ExtensionContext context) throws IOException {
-		Properties props = new Properties();
-		props.load(getClass().getResourceAsStream("/MyFile.props"));
-		System.setProperties(props);
+		AppliedFile applied = AppliedFile.apply(getClass(), "/MyFile.props");
+		context.getStore(NAMESPACE).put(this, applied);
 	}
 
 	@Override
-	public void afterEach(final ExtensionContext context) throws IOException {
-		// reset the sys props ...
-		Properties props = new Properties();
-		props.load(getClass().getResourceAsStream("/MyFile.props"));
+	public void afterEach(final ExtensionContext context) {
+		// reset the sys props to what they were before this test
+		AppliedFile applied = context.getStore(NAMESPACE).remove(this, AppliedFile.class);
 
-		props.keySet().stream().forEach(k -> System.getProperties().remove(k));
+		if (applied != null) {
+			applied.restore();
+		}
 	}
 }
@@ -0,0 +1,96 @@
+package ext.simple;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.junit.jupiter.api.parallel.Resources;
+import org.junit.platform.testkit.engine.EngineTestKit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+
+/**
+ * Runs the Scenario classes in parallel:  The READ_WRITE lock @ConfigAnn and @SimpleAnn declare
+ * keeps their tests from running at the same time, but not a test w/o them.  The Scenario
+ * classes are static nested classes, so they are not run by the build on their own.
+ */
+// The scenarios set real (global) System properties
+@ResourceLock(Resources.SYSTEM_PROPERTIES)
+public class ResourceLockTest {
+
+	/** Configured tests running right now, and the most that ever ran at once */
+	static final AtomicInteger configured = new AtomicInteger();
+	static final AtomicInteger maxConfigured = new AtomicInteger();
+
+	/** Whether the unannotated test saw a configured test running */
+	static final AtomicBoolean overlapped = new AtomicBoolean();
+
+	@Test
+	public void lockedTestsShouldNeverOverlapButOthersShould() {
+		configured.set(0);
+		maxConfigured.set(0);
+		overlapped.set(false);
+
+		EngineTestKit.engine("junit-jupiter")
+				.configurationParameter("junit.jupiter.execution.parallel.enabled", "true")
+				.configurationParameter("junit.jupiter.execution.parallel.mode.default", "concurrent")
+				.configurationParameter("junit.jupiter.execution.parallel.mode.classes.default", "concurrent")
+				.configurationParameter("junit.jupiter.execution.parallel.config.strategy", "fixed")
+				.configurationParameter("junit.jupiter.execution.parallel.config.fixed.parallelism", "4")
+				.selectors(selectClass(ConfiguredScenario.class), selectClass(SimpleScenario.class),
+						selectClass(UnannotatedScenario.class))
+				.execute()
+				.testEvents()
+				.assertStatistics(stats -> stats.started(3).succeeded(3));
+
+		assertEquals(1, maxConfigured.get(), "Tests w/ the READ_WRITE lock ran at the same time");
+		assertTrue(overlapped.get(), "The test w/o a lock didn't run alongside a locked one");
+		assertNull(System.getProperty("phaser"), "Configuration was not restored");
+	}
+
+	/** Hold the lock long enough for the other scenarios to try to run alongside */
+	static void runConfigured() throws InterruptedException {
+		maxConfigured.accumulateAndGet(configured.incrementAndGet(), Math::max);
+		try {
+			Thread.sleep(300);
+		} finally {
+			configured.decrementAndGet();
+		}
+	}
+
+	@ConfigAnn(filepath = "/other.props")
+	static class ConfiguredScenario {
+		@Test
+		void configured() throws InterruptedException {
+			assertEquals("entertain", System.getProperty("phaser"));
+			runConfigured();
+			assertEquals("entertain", System.getProperty("phaser"));
+		}
+	}
+
+	@SimpleAnn
+	static class SimpleScenario {
+		@Test
+		void configured() throws InterruptedException {
+			assertEquals("stun", System.getProperty("phaser"));
+			runConfigured();
+			assertEquals("stun", System.getProperty("phaser"));
+		}
+	}
+
+	static class UnannotatedScenario {
+		@Test		// Waits for a configured test to start, rather than finishing before either does
+		void unannotated() throws InterruptedException {
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+
+			while (configured.get() == 0 && System.nanoTime() < deadline) {
+				Thread.sleep(1);
+			}
+
+			overlapped.set(configured.get() > 0);
+		}
+	}
+}